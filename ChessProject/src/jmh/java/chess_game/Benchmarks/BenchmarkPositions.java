@@ -0,0 +1,22 @@
+package chess_game.Benchmarks;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Boards.Board;
+
+/**
+ * Positions shared by the benchmarks: the opening, a busy middlegame and a
+ * sparse endgame, so every hot path is timed on more than one kind of board.
+ */
+public final class BenchmarkPositions {
+
+    public static final String OPENING = BitBoard.START_FEN;
+    public static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    public static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private BenchmarkPositions() {
+    }
+
+    public static Board board(String fen) {
+        return BitBoard.fromFen(fen).toBoard();
+    }
+}
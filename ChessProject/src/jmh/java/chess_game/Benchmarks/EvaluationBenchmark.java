@@ -0,0 +1,63 @@
+package chess_game.Benchmarks;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Boards.Board;
+import chess_game.ChessAI;
+import chess_game.Pieces.Team;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Static evaluation, called at every leaf of the search (BitBoard) and once per
+ * AI move for the learning data (Board, which converts first).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EvaluationBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String fen;
+
+    private ChessAI ai;
+    private Board board;
+    private Team team;
+    private BitBoard position;
+
+    @Setup
+    public void setup() {
+        ai = new ChessAI(1, 1);
+        board = BenchmarkPositions.board(fen);
+        team = board.getCurrentPlayer().getTeam();
+        position = BitBoard.fromFen(fen);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ai.shutdown();
+    }
+
+    @Benchmark
+    public double evaluateBoard() {
+        return ai.evaluateBoard(board, team);
+    }
+
+    @Benchmark
+    public int evaluateBitBoard() {
+        return ai.evaluate(position);
+    }
+}
@@ -0,0 +1,70 @@
+package chess_game.Benchmarks;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Boards.Board;
+import chess_game.Move.Move;
+import chess_game.Move.MoveList;
+import chess_game.Pieces.Team;
+import chess_game.Utilities.MoveUtilities;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Legal move generation, check detection and board copies: the work done for
+ * every GUI click, every game state update and every node of the root search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoveGenerationBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String fen;
+
+    private Board board;
+    private Team team;
+    private BitBoard position;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.board(fen);
+        team = board.getCurrentPlayer().getTeam();
+        position = BitBoard.fromFen(fen);
+    }
+
+    @Benchmark
+    public List<Move> getLegalMoves() {
+        return MoveUtilities.getLegalMoves(board, team);
+    }
+
+    @Benchmark
+    public boolean controlCheckState() {
+        return MoveUtilities.controlCheckState(board, team);
+    }
+
+    @Benchmark
+    public Board deepCopy() {
+        return board.deepCopy();
+    }
+
+    @Benchmark
+    public int generateLegalMovesBitBoard() {
+        position.generateLegalMoves(moves);
+        return moves.size();
+    }
+}
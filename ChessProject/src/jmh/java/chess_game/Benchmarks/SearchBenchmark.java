@@ -0,0 +1,79 @@
+package chess_game.Benchmarks;
+
+import chess_game.Boards.Board;
+import chess_game.ChessAI;
+import chess_game.Move.Move;
+import chess_game.Pieces.Team;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * AI turn latency: one full getBestMove call at a fixed depth. The
+ * transposition table is cleared before every call so each one searches from
+ * scratch instead of returning the previous result. The opening book is
+ * turned off, so the starting position is searched rather than looked up.
+ * Every parallel search mode is measured on the same positions, which must
+ * reach the search: a move from the book, the endgame tables or the mate
+ * search would time a lookup instead, so setup fails on one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String fen;
+
+    @Param({"3", "4"})
+    public int depth;
+
+    @Param({"LAZY_SMP", "YOUNG_BROTHERS_WAIT"})
+    public ChessAI.SearchMode mode;
+
+    private ChessAI ai;
+    private Board board;
+    private Team team;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ai = new ChessAI(depth);
+        ai.setSearchMode(mode);
+        ai.setOpeningBook(null);
+        board = BenchmarkPositions.board(fen);
+        team = board.getCurrentPlayer().getTeam();
+        ai.getBestMove(board, team);
+        if (ai.getLastSearchDepth() == 0) {
+            throw new IllegalStateException("The AI answers this position without searching: " + fen);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        ai.clearTranspositionTable();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ai.shutdown();
+    }
+
+    @Benchmark
+    public Move getBestMove() {
+        return ai.getBestMove(board, team);
+    }
+}
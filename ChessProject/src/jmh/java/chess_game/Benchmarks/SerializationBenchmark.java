@@ -0,0 +1,59 @@
+package chess_game.Benchmarks;
+
+import Messages.GameState;
+import chess_game.Boards.Board;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Java serialization of a saved game, as sent between client and server and
+ * written by save/load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    private GameState gameState;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        Board board = BenchmarkPositions.board(BenchmarkPositions.MIDDLEGAME);
+        gameState = new GameState(board, "White", "Black", board.getCurrentPlayer().getTeam(), "benchmark", false);
+        serialized = serializeGameState();
+    }
+
+    @Benchmark
+    public byte[] serializeGameState() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(gameState);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserializeGameState() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
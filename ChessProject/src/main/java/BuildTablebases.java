@@ -0,0 +1,19 @@
+import chess_game.Engine.TablebaseGenerator;
+import chess_game.Engine.Tablebases;
+
+import java.nio.file.Paths;
+
+/**
+ * Generates the endgame tables the AI probes (see {@link Tablebases}) by retrograde
+ * analysis: KQK and KRK, then KPK, whose promotions lead into them.
+ *
+ * Run from the project directory: java BuildTablebases [directory]
+ * (default: tablebases, where the game looks for them)
+ */
+public class BuildTablebases {
+
+    public static void main(String[] args) throws Exception {
+        String directory = args.length > 0 ? args[0] : Tablebases.DEFAULT_DIRECTORY;
+        TablebaseGenerator.generateAll(Paths.get(directory));
+    }
+}
@@ -0,0 +1,79 @@
+import chess_game.Boards.BitBoard;
+import chess_game.ChessAI;
+import chess_game.Move.MoveList;
+
+import java.util.Random;
+
+/**
+ * Evaluation regression test. Winning a piece must score better than leaving
+ * it hanging, so the search takes material rather than keeping the threat.
+ * Then the static evaluation of every position of a fixed set of random games
+ * is folded into one signature. A change meant to be a pure speed-up must leave
+ * the signature as it is; a change to the evaluation itself updates
+ * EXPECTED_SIGNATURE in the same commit.
+ * Exits with status 1 when a check fails or the signature differs.
+ *
+ * Run: java TestEvaluation
+ */
+public class TestEvaluation {
+
+    // Random games from the initial position, the same ones on every run
+    private static final long SEED = 11;
+    private static final int GAMES = 300;
+    private static final int MAX_PLIES = 150;
+
+    // A position where the side to move can take a hanging piece, then the position after
+    // it has taken the piece
+    private static final String[][] CAPTURES = {
+        {"Queen hanging to a rook", "4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", "4k3/8/8/3R4/8/8/8/4K3 b - - 0 1"},
+        {"Knight hanging to a pawn", "4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1", "4k3/8/8/3P4/8/8/8/4K3 b - - 0 1"},
+        {"Queen hanging in the opening", "r1bqkbnr/pppp1ppp/2n5/4p3/3Q4/8/PPPP1PPP/RNB1KBNR b KQkq - 0 3",
+            "r1bqkbnr/pppp1ppp/2n5/8/3p4/8/PPPP1PPP/RNB1KBNR w KQkq - 0 4"},
+    };
+
+    private static final int EXPECTED_POSITIONS = 43809;
+    private static final long EXPECTED_SIGNATURE = -3399450453115945468L;
+
+    public static void main(String[] args) {
+        System.out.println("=== Evaluation Test ===");
+        ChessAI ai = new ChessAI(1, 1, 1);
+        int failures = 0;
+        for (String[] capture : CAPTURES) {
+            int hanging = ai.evaluate(BitBoard.fromFen(capture[1]));
+            // The opponent is to move after the capture
+            int won = -ai.evaluate(BitBoard.fromFen(capture[2]));
+            boolean passed = won > hanging;
+            System.out.println(String.format("%s: hanging %d, taken %d %s", capture[0], hanging, won,
+                    passed ? "PASS" : "FAIL"));
+            failures += passed ? 0 : 1;
+        }
+
+        Random random = new Random(SEED);
+        MoveList moves = new MoveList();
+        int positions = 0;
+        long signature = 0;
+        long nanos = 0;
+        for (int game = 0; game < GAMES; game++) {
+            BitBoard position = BitBoard.fromFen(BitBoard.START_FEN);
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                position.generateLegalMoves(moves);
+                if (moves.size() == 0) {
+                    break;
+                }
+                position.makeMove(moves.get(random.nextInt(moves.size())));
+                long start = System.nanoTime();
+                int score = ai.evaluate(position);
+                nanos += System.nanoTime() - start;
+                signature = signature * 31 + score;
+                positions++;
+            }
+        }
+
+        boolean passed = positions == EXPECTED_POSITIONS && signature == EXPECTED_SIGNATURE;
+        failures += passed ? 0 : 1;
+        System.out.println(String.format("%,d positions (expected %,d), signature %d (expected %d) %s",
+                positions, EXPECTED_POSITIONS, signature, EXPECTED_SIGNATURE, passed ? "PASS" : "FAIL"));
+        System.out.println(String.format("%,d ns per evaluation", nanos / Math.max(1, positions)));
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,80 @@
+import chess_game.Boards.BitBoard;
+import chess_game.Utilities.Perft;
+
+/**
+ * Move generator regression test: perft counts for the standard reference
+ * positions on both the Board path (GUI) and the BitBoard path (search).
+ * Exits with status 1 when any count is wrong.
+ *
+ * Run: java TestPerft
+ */
+public class TestPerft {
+
+    // FEN, then expected node counts for depth 1, 2, 3...
+    private static final Object[][] POSITIONS = {
+        {"Initial position", BitBoard.START_FEN,
+            new long[]{20, 400, 8902, 197281, 4865609}},
+        {"Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            new long[]{48, 2039, 97862, 4085603}},
+        {"Position 3 (en passant pins)", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            new long[]{14, 191, 2812, 43238, 674624}},
+        {"Position 4 (promotions)", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            new long[]{6, 264, 9467, 422333}},
+        {"Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            new long[]{44, 1486, 62379, 2103487}},
+        {"Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            new long[]{46, 2079, 89890, 3894594}},
+    };
+
+    // The Board path is much slower, so it is checked to a smaller depth
+    private static final int BOARD_MAX_NODES = 100000;
+
+    public static void main(String[] args) {
+        System.out.println("=== Perft Test ===");
+        int failures = 0;
+        long bitBoardNodes = 0;
+        long bitBoardNanos = 0;
+        long boardNodes = 0;
+        long boardNanos = 0;
+
+        for (Object[] position : POSITIONS) {
+            String name = (String) position[0];
+            String fen = (String) position[1];
+            long[] expected = (long[]) position[2];
+            System.out.println();
+            System.out.println(name + ": " + fen);
+
+            for (int depth = 1; depth <= expected.length; depth++) {
+                BitBoard bitBoard = BitBoard.fromFen(fen);
+                long start = System.nanoTime();
+                long nodes = Perft.perft(bitBoard, depth);
+                long elapsed = System.nanoTime() - start;
+                bitBoardNodes += nodes;
+                bitBoardNanos += elapsed;
+                failures += report("BitBoard", depth, nodes, expected[depth - 1], elapsed);
+
+                if (expected[depth - 1] <= BOARD_MAX_NODES) {
+                    start = System.nanoTime();
+                    nodes = Perft.perft(BitBoard.fromFen(fen).toBoard(), depth);
+                    elapsed = System.nanoTime() - start;
+                    boardNodes += nodes;
+                    boardNanos += elapsed;
+                    failures += report("Board   ", depth, nodes, expected[depth - 1], elapsed);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("BitBoard: %,d nodes, %,d nodes/s", bitBoardNodes, Perft.nodesPerSecond(bitBoardNodes, bitBoardNanos)));
+        System.out.println(String.format("Board:    %,d nodes, %,d nodes/s", boardNodes, Perft.nodesPerSecond(boardNodes, boardNanos)));
+        System.out.println(failures == 0 ? "All perft counts correct" : failures + " perft count(s) wrong");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static int report(String path, int depth, long nodes, long expected, long elapsedNanos) {
+        boolean passed = nodes == expected;
+        System.out.println(String.format("  %s depth %d: %,d (expected %,d) %s  %,d nodes/s", path, depth, nodes, expected,
+                passed ? "PASS" : "FAIL", Perft.nodesPerSecond(nodes, elapsedNanos)));
+        return passed ? 0 : 1;
+    }
+}
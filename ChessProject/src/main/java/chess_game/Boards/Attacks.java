@@ -0,0 +1,245 @@
+package chess_game.Boards;
+
+/**
+ * Precomputed attack tables shared by the Board and BitBoard code.
+ *
+ * Pawns, knights and kings use one table entry per square. Rooks and bishops
+ * use magic bitboards: the blockers on the relevant squares are multiplied by
+ * a per-square magic number, and the top bits of the product index a table
+ * holding the attack set for exactly that blocker pattern. The magic numbers
+ * were found with a sparse random search; the tables are filled at class load.
+ *
+ * For code that walks the tiles of a Board, every square also has its rays
+ * as square arrays (see {@link #getRay(int, int)}), so no Coordinate is
+ * created per step. Squares use BitBoard numbering (a1 = 0, h8 = 63).
+ */
+public final class Attacks {
+
+    // Ray directions: the first four are straight (rook), the last four diagonal (bishop)
+    public static final int NORTH = 0;
+    public static final int SOUTH = 1;
+    public static final int EAST = 2;
+    public static final int WEST = 3;
+    public static final int NORTH_EAST = 4;
+    public static final int NORTH_WEST = 5;
+    public static final int SOUTH_EAST = 6;
+    public static final int SOUTH_WEST = 7;
+
+    public static final int[] ROOK_DIRECTIONS = {NORTH, SOUTH, EAST, WEST};
+    public static final int[] BISHOP_DIRECTIONS = {NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST};
+    public static final int[] QUEEN_DIRECTIONS = {NORTH, SOUTH, EAST, WEST, NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST};
+
+    // File and rank steps of each direction
+    private static final int[][] DIRECTION_STEPS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final int[][][] RAYS = new int[64][8][];
+    // Squares strictly between two aligned squares, and the whole line through them (0 when not aligned)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+        0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+        0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+        0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+        0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+        0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+        0x0001818014000800L, 0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+        0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+        0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+        0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+        0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L, 0x8004048102000854L,
+        0x4420802040008006L, 0x0880500020004002L, 0x0801200241050010L, 0x8400080010008080L,
+        0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+        0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+        0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+        0x8044110480002441L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+        0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+        0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L, 0x000220920280002DL,
+        0x32040421000B0284L, 0x1002080404000400L, 0x0004160892080040L, 0x2203024206204201L,
+        0x0002404264010200L, 0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+        0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L, 0x0010050080908820L,
+        0x0C90A04490824802L, 0x000200A008210130L, 0x0C08001000204010L, 0x0008000186014480L,
+        0x0601044820080021L, 0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+        0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L, 0x2020120000400440L,
+        0x0108840200802003L, 0x0009070082009492L, 0x020C0C0038424245L, 0xCA44005808210410L,
+        0x8011212000500404L, 0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+        0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L, 0x0242061040002400L,
+        0x90020202400821A0L, 0x00C9009004E01002L, 0x58C2060202023100L, 0x0000012214040800L,
+        0x0210846810100200L, 0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+        0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L, 0x2080001042020004L,
+        0x0544021020288104L, 0x1103501408083020L, 0x4010451004960002L, 0x003010091C44902CL,
+        0x0102402884202000L, 0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+        0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L, 0x0045010808008680L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    static {
+        long fileA = 0x0101010101010101L;
+        long fileH = fileA << 7;
+        for (int sq = 0; sq < 64; sq++) {
+            long bit = 1L << sq;
+            PAWN_ATTACKS[BitBoard.WHITE][sq] = ((bit << 7) & ~fileH) | ((bit << 9) & ~fileA);
+            PAWN_ATTACKS[BitBoard.BLACK][sq] = ((bit >>> 9) & ~fileH) | ((bit >>> 7) & ~fileA);
+            KNIGHT_ATTACKS[sq] = leaperAttacks(sq, new int[][]{{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}});
+            KING_ATTACKS[sq] = leaperAttacks(sq, new int[][]{{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}});
+            for (int direction = 0; direction < 8; direction++) {
+                RAYS[sq][direction] = raySquares(sq, direction);
+            }
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MASKS[sq] = relevantOccupancy(sq, ROOK_DIRECTIONS);
+            ROOK_SHIFTS[sq] = 64 - Long.bitCount(ROOK_MASKS[sq]);
+            ROOK_TABLE[sq] = fillMagicTable(sq, ROOK_MASKS[sq], ROOK_MAGICS[sq], ROOK_SHIFTS[sq], ROOK_DIRECTIONS);
+
+            BISHOP_MASKS[sq] = relevantOccupancy(sq, BISHOP_DIRECTIONS);
+            BISHOP_SHIFTS[sq] = 64 - Long.bitCount(BISHOP_MASKS[sq]);
+            BISHOP_TABLE[sq] = fillMagicTable(sq, BISHOP_MASKS[sq], BISHOP_MAGICS[sq], BISHOP_SHIFTS[sq], BISHOP_DIRECTIONS);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long ends = (1L << a) | (1L << b);
+                if (a != b && (getRookAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = getRookAttacks(a, 1L << b) & getRookAttacks(b, 1L << a);
+                    LINE[a][b] = (getRookAttacks(a, 0L) & getRookAttacks(b, 0L)) | ends;
+                } else if (a != b && (getBishopAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = getBishopAttacks(a, 1L << b) & getBishopAttacks(b, 1L << a);
+                    LINE[a][b] = (getBishopAttacks(a, 0L) & getBishopAttacks(b, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long getPawnAttacks(int color, int sq) {
+        return PAWN_ATTACKS[color][sq];
+    }
+
+    public static long getKnightAttacks(int sq) {
+        return KNIGHT_ATTACKS[sq];
+    }
+
+    public static long getKingAttacks(int sq) {
+        return KING_ATTACKS[sq];
+    }
+
+    public static long getBishopAttacks(int sq, long occupancy) {
+        return BISHOP_TABLE[sq][(int) (((occupancy & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq])];
+    }
+
+    public static long getRookAttacks(int sq, long occupancy) {
+        return ROOK_TABLE[sq][(int) (((occupancy & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq])];
+    }
+
+    public static long getQueenAttacks(int sq, long occupancy) {
+        return getBishopAttacks(sq, occupancy) | getRookAttacks(sq, occupancy);
+    }
+
+    public static long getBetween(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    public static long getLine(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Squares from sq towards the board edge in one direction, nearest first.
+     * The array is shared, so callers must not change it.
+     */
+    public static int[] getRay(int sq, int direction) {
+        return RAYS[sq][direction];
+    }
+
+    /**
+     * True for the four straight directions, along which rooks and queens attack.
+     */
+    public static boolean isStraight(int direction) {
+        return direction < NORTH_EAST;
+    }
+
+    private static long leaperAttacks(int sq, int[][] offsets) {
+        long attacks = 0L;
+        int file = sq & 7;
+        int rank = sq >>> 3;
+        for (int[] offset : offsets) {
+            int f = file + offset[0];
+            int r = rank + offset[1];
+            if (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                attacks |= 1L << (r * 8 + f);
+            }
+        }
+        return attacks;
+    }
+
+    private static int[] raySquares(int sq, int direction) {
+        int[] squares = new int[7];
+        int count = 0;
+        int file = (sq & 7) + DIRECTION_STEPS[direction][0];
+        int rank = (sq >>> 3) + DIRECTION_STEPS[direction][1];
+        while (file >= 0 && file < 8 && rank >= 0 && rank < 8) {
+            squares[count++] = rank * 8 + file;
+            file += DIRECTION_STEPS[direction][0];
+            rank += DIRECTION_STEPS[direction][1];
+        }
+        return java.util.Arrays.copyOf(squares, count);
+    }
+
+    // Slow ray walk, only used to fill the magic tables (the blocker is included)
+    private static long slidingAttacks(int sq, long occupancy, int[] directions) {
+        long attacks = 0L;
+        for (int direction : directions) {
+            for (int target : RAYS[sq][direction]) {
+                attacks |= 1L << target;
+                if ((occupancy & (1L << target)) != 0) {
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    // The ray squares whose occupancy can change the attacks: every square except the last one of each ray
+    private static long relevantOccupancy(int sq, int[] directions) {
+        long mask = 0L;
+        for (int direction : directions) {
+            int[] ray = RAYS[sq][direction];
+            for (int i = 0; i < ray.length - 1; i++) {
+                mask |= 1L << ray[i];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Stores the attacks for every blocker subset of the mask at its magic index.
+     */
+    private static long[] fillMagicTable(int sq, long mask, long magic, int shift, int[] directions) {
+        long[] table = new long[1 << Long.bitCount(mask)];
+        long subset = 0L;
+        do {
+            int index = (int) ((subset * magic) >>> shift);
+            long attacks = slidingAttacks(sq, subset, directions);
+            // Slider attacks are never empty, so 0 marks a free slot
+            if (table[index] != 0L && table[index] != attacks) {
+                throw new IllegalStateException("Bad magic number for square " + sq);
+            }
+            table[index] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0L);
+        return table;
+    }
+}
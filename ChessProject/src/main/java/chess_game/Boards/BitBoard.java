@@ -0,0 +1,1172 @@
+package chess_game.Boards;
+
+import chess_game.Move.Move;
+import chess_game.Move.MoveList;
+import chess_game.Move.PackedMove;
+import chess_game.Pieces.*;
+
+/**
+ * 64-bit bitboard representation of a chess position, kept alongside the
+ * Tile based {@link Board}. Every piece type and every colour has its own
+ * {@code long} mask, so occupancy and piece lookups are single bit operations
+ * instead of walks over the Tile grid.
+ *
+ * Squares are numbered 0..63 from a1 to h8 (rank * 8 + file). A Board
+ * coordinate (x, y) has y = 0 on black's back rank, so it maps to square
+ * (7 - y) * 8 + x.
+ *
+ * Moves are packed ints ({@link PackedMove}); makeMove/unmakeMove keep the
+ * Zobrist key up to date and use preallocated history arrays, so the search
+ * can run on one BitBoard without allocating.
+ */
+public class BitBoard {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private final long[] pieceBitboards = new long[6];
+    private final long[] colorBitboards = new long[2];
+    // Mailbox mirror of the masks: colour * 6 + type, or NO_PIECE
+    private final int[] squares = new int[64];
+    private int sideToMove = WHITE;
+    private int castlingRights = 0;
+    private int enPassantSquare = NO_SQUARE;
+    private int halfmoveClock = 0;
+    private long zobristKey = 0L;
+    // Zobrist key of the pawns and kings alone, for the pawn hash table
+    private long pawnKey = 0L;
+    // Evaluation sums kept up to date like the key: piece points without the king,
+    // piece-square values (see PieceSquareTables) per colour, and the game phase
+    private final int[] material = new int[2];
+    private final int[] middlegameScore = new int[2];
+    private final int[] endgameScore = new int[2];
+    private int phase = 0;
+    // Attack maps: squares attacked by each colour and piece kind, and the number of squares
+    // the pieces reach. Built on first use after a change (see computeAttacks) and dropped by
+    // setPiece and clearSquare.
+    private final long[] pieceAttacks = new long[12];
+    private final long[] attacks = new long[2];
+    private final int[] mobility = new int[2];
+    private boolean attacksValid = false;
+
+    // Undo information for every move played with makeMove
+    public static final int MAX_HISTORY = 1024;
+    private final int[] historyMoves = new int[MAX_HISTORY];
+    private final int[] historyCaptured = new int[MAX_HISTORY];
+    private final int[] historyCastling = new int[MAX_HISTORY];
+    private final int[] historyEnPassant = new int[MAX_HISTORY];
+    private final int[] historyHalfmoveClock = new int[MAX_HISTORY];
+    private final long[] historyKeys = new long[MAX_HISTORY];
+    private int historyCount = 0;
+    // Scratch list of staticExchange; one capture per piece on the board at most
+    private final int[] seeGain = new int[33];
+
+    // Castling right masks, indexed by square; attack tables are in Attacks
+    private static final int[] CASTLING_MASK = new int[64];
+    private static final int[] PROMOTION_TYPES = {QUEEN, ROOK, BISHOP, KNIGHT};
+    // Piece points by type for the static exchange evaluation, as in PieceTypes
+    private static final int[] POINTS = new int[6];
+
+    static {
+        for (int type = PAWN; type <= KING; type++) {
+            POINTS[type] = pieceTypeOf(type).getPoints();
+        }
+        java.util.Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+    }
+
+    public BitBoard() {
+        java.util.Arrays.fill(squares, NO_PIECE);
+    }
+
+    public BitBoard(BitBoard other) {
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.halfmoveClock = other.halfmoveClock;
+        this.zobristKey = other.zobristKey;
+        this.pawnKey = other.pawnKey;
+        System.arraycopy(other.material, 0, material, 0, 2);
+        System.arraycopy(other.middlegameScore, 0, middlegameScore, 0, 2);
+        System.arraycopy(other.endgameScore, 0, endgameScore, 0, 2);
+        this.phase = other.phase;
+        // History is copied so the copy can unmake past the copy point and still sees
+        // repetitions of positions before it
+        this.historyCount = other.historyCount;
+        System.arraycopy(other.historyKeys, 0, historyKeys, 0, historyCount);
+        System.arraycopy(other.historyMoves, 0, historyMoves, 0, historyCount);
+        System.arraycopy(other.historyCaptured, 0, historyCaptured, 0, historyCount);
+        System.arraycopy(other.historyCastling, 0, historyCastling, 0, historyCount);
+        System.arraycopy(other.historyEnPassant, 0, historyEnPassant, 0, historyCount);
+        System.arraycopy(other.historyHalfmoveClock, 0, historyHalfmoveClock, 0, historyCount);
+    }
+
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /**
+     * Builds a bitboard position from a Board, using the board's current player as side to move.
+     */
+    public static BitBoard fromBoard(Board board) {
+        return fromBoard(board, board.getCurrentPlayer().getTeam());
+    }
+
+    /**
+     * Builds a bitboard position from a Board with an explicit side to move. Castling rights
+     * come from the King/Rook hasMoved flags and the en-passant square from the board's last move.
+     */
+    public static BitBoard fromBoard(Board board, Team sideToMove) {
+        BitBoard position = new BitBoard();
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                Piece piece = board.getTile(x, y).getPiece();
+                if (piece != null) {
+                    position.setPiece(square(x, y), colorOf(piece.getTeam()), typeOf(piece.getType()));
+                }
+            }
+        }
+        position.setSideToMove(colorOf(sideToMove));
+        position.setCastlingRights(board.getCastlingRights());
+
+        Move lastMove = board.getLastMove();
+        if (lastMove != null && lastMove.getMovedPiece() != null
+                && lastMove.getMovedPiece().getType() == PieceTypes.PAWN
+                && lastMove.getCurrentTile() != null && lastMove.getDestinationTile() != null) {
+            Coordinate from = lastMove.getCurrentTile().getCoordinate();
+            Coordinate to = lastMove.getDestinationTile().getCoordinate();
+            if (from.getX() == to.getX() && Math.abs(from.getY() - to.getY()) == 2) {
+                int pawnSquare = square(to.getX(), to.getY());
+                int pushedColor = colorOf(lastMove.getMovedPiece().getTeam());
+                if (position.squares[pawnSquare] == pushedColor * 6 + PAWN && pushedColor != position.sideToMove) {
+                    position.setEnPassantSquare(square(to.getX(), (from.getY() + to.getY()) / 2));
+                }
+            }
+        }
+        return position;
+    }
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * Parses a position in Forsyth-Edwards Notation. The move counters are optional.
+     */
+    public static BitBoard fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Incomplete FEN: " + fen);
+        }
+        BitBoard position = new BitBoard();
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN must have 8 ranks: " + fen);
+        }
+        for (int i = 0; i < 8; i++) {
+            int rank = 7 - i;
+            int file = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    file += c - '0';
+                    continue;
+                }
+                int type = "pnbrqk".indexOf(Character.toLowerCase(c));
+                if (type < 0 || file > 7) {
+                    throw new IllegalArgumentException("Bad FEN rank '" + ranks[i] + "': " + fen);
+                }
+                position.setPiece(rank * 8 + file, Character.isUpperCase(c) ? WHITE : BLACK, type);
+                file++;
+            }
+        }
+        position.setSideToMove(fields[1].equals("b") ? BLACK : WHITE);
+        int rights = 0;
+        if (fields[2].indexOf('K') >= 0) rights |= WHITE_KINGSIDE;
+        if (fields[2].indexOf('Q') >= 0) rights |= WHITE_QUEENSIDE;
+        if (fields[2].indexOf('k') >= 0) rights |= BLACK_KINGSIDE;
+        if (fields[2].indexOf('q') >= 0) rights |= BLACK_QUEENSIDE;
+        position.setCastlingRights(rights);
+        if (!fields[3].equals("-")) {
+            position.setEnPassantSquare((fields[3].charAt(1) - '1') * 8 + (fields[3].charAt(0) - 'a'));
+        }
+        if (fields.length > 4) {
+            position.halfmoveClock = Integer.parseInt(fields[4]);
+        }
+        return position;
+    }
+
+    /**
+     * Writes the position as FEN. The full move number is not tracked and written as 1.
+     */
+    public String toFen() {
+        StringBuilder builder = new StringBuilder();
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = squares[rank * 8 + file];
+                if (piece == NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                builder.append("PNBRQKpnbrqk".charAt(piece));
+            }
+            if (empty > 0) {
+                builder.append(empty);
+            }
+            if (rank > 0) {
+                builder.append('/');
+            }
+        }
+        builder.append(sideToMove == WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            builder.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) builder.append('K');
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) builder.append('Q');
+            if ((castlingRights & BLACK_KINGSIDE) != 0) builder.append('k');
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) builder.append('q');
+        }
+        builder.append(' ').append(enPassantSquare == NO_SQUARE ? "-" : PackedMove.squareName(enPassantSquare));
+        builder.append(' ').append(halfmoveClock).append(" 1");
+        return builder.toString();
+    }
+
+    /**
+     * Converts this position back into a Tile based Board, restoring hasMoved flags from
+     * the castling rights and a last move so that Pawn can still find the en-passant capture.
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                board.getTile(x, y).setPiece(null);
+            }
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            if (squares[sq] == NO_PIECE) {
+                continue;
+            }
+            Piece piece = createPiece(getPieceType(sq), teamOf(getPieceColor(sq)));
+            if (piece instanceof King) {
+                int rights = getPieceColor(sq) == WHITE ? WHITE_KINGSIDE | WHITE_QUEENSIDE : BLACK_KINGSIDE | BLACK_QUEENSIDE;
+                ((King) piece).setHasMoved((castlingRights & rights) == 0);
+            } else if (piece instanceof Rook) {
+                ((Rook) piece).setHasMoved(!isCastlingRook(sq, getPieceColor(sq)));
+            }
+            board.getTile(xOf(sq), yOf(sq)).setPiece(piece);
+        }
+        if (sideToMove == BLACK) {
+            board.changeCurrentPlayer();
+        }
+        if (enPassantSquare != NO_SQUARE) {
+            int direction = sideToMove == WHITE ? -8 : 8;
+            int pawnSquare = enPassantSquare + direction;
+            int startSquare = enPassantSquare - direction;
+            Tile startTile = board.getTile(xOf(startSquare), yOf(startSquare));
+            Tile pawnTile = board.getTile(xOf(pawnSquare), yOf(pawnSquare));
+            Move doublePush = new Move(board, startTile, pawnTile);
+            doublePush.setMovedPiece(pawnTile.getPiece());
+            doublePush.setKilledPiece(null);
+            board.setLastMove(doublePush);
+            board.setEnPassantTargetTile(board.getTile(xOf(enPassantSquare), yOf(enPassantSquare)));
+        }
+        board.recomputeZobristKey();
+        return board;
+    }
+
+    private boolean isCastlingRook(int sq, int color) {
+        if (color == WHITE) {
+            return (sq == 7 && (castlingRights & WHITE_KINGSIDE) != 0)
+                    || (sq == 0 && (castlingRights & WHITE_QUEENSIDE) != 0);
+        }
+        return (sq == 63 && (castlingRights & BLACK_KINGSIDE) != 0)
+                || (sq == 56 && (castlingRights & BLACK_QUEENSIDE) != 0);
+    }
+
+    public void setPiece(int sq, int color, int type) {
+        clearSquare(sq);
+        attacksValid = false;
+        long bit = 1L << sq;
+        pieceBitboards[type] |= bit;
+        colorBitboards[color] |= bit;
+        squares[sq] = color * 6 + type;
+        zobristKey ^= Zobrist.getPieceSquareKey(color, type, sq);
+        if (type == PAWN || type == KING) {
+            pawnKey ^= Zobrist.getPieceSquareKey(color, type, sq);
+        }
+        if (type != KING) {
+            material[color] += POINTS[type];
+        }
+        middlegameScore[color] += PieceSquareTables.getMiddlegame(color, type, sq);
+        endgameScore[color] += PieceSquareTables.getEndgame(color, type, sq);
+        phase += PieceSquareTables.getPhaseWeight(type);
+    }
+
+    public void clearSquare(int sq) {
+        int piece = squares[sq];
+        if (piece == NO_PIECE) {
+            return;
+        }
+        attacksValid = false;
+        long bit = 1L << sq;
+        pieceBitboards[piece % 6] &= ~bit;
+        colorBitboards[piece / 6] &= ~bit;
+        squares[sq] = NO_PIECE;
+        int color = piece / 6;
+        int type = piece % 6;
+        zobristKey ^= Zobrist.getPieceSquareKey(color, type, sq);
+        if (type == PAWN || type == KING) {
+            pawnKey ^= Zobrist.getPieceSquareKey(color, type, sq);
+        }
+        if (type != KING) {
+            material[color] -= POINTS[type];
+        }
+        middlegameScore[color] -= PieceSquareTables.getMiddlegame(color, type, sq);
+        endgameScore[color] -= PieceSquareTables.getEndgame(color, type, sq);
+        phase -= PieceSquareTables.getPhaseWeight(type);
+    }
+
+    public int getPieceType(int sq) {
+        int piece = squares[sq];
+        return piece == NO_PIECE ? NO_PIECE : piece % 6;
+    }
+
+    public int getPieceColor(int sq) {
+        int piece = squares[sq];
+        return piece == NO_PIECE ? NO_PIECE : piece / 6;
+    }
+
+    public boolean isEmpty(int sq) {
+        return squares[sq] == NO_PIECE;
+    }
+
+    public long getPieces(int type) {
+        return pieceBitboards[type];
+    }
+
+    public long getPieces(int color, int type) {
+        return pieceBitboards[type] & colorBitboards[color];
+    }
+
+    public long getColorOccupancy(int color) {
+        return colorBitboards[color];
+    }
+
+    public long getOccupancy() {
+        return colorBitboards[WHITE] | colorBitboards[BLACK];
+    }
+
+    /**
+     * Zobrist key of the position, kept up to date by every mutator. Equal to
+     * {@link Zobrist#computeKey(BitBoard)} and to Board.getZobristKey() for the same position.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Squares attacked by the colour's pieces, whether or not they hold a piece of either colour.
+     */
+    public long getAttacks(int color) {
+        computeAttacks();
+        return attacks[color];
+    }
+
+    /**
+     * Squares attacked by the colour's pieces of one type.
+     */
+    public long getAttacks(int color, int type) {
+        computeAttacks();
+        return pieceAttacks[color * 6 + type];
+    }
+
+    /**
+     * Sum over the colour's knights, bishops, rooks and queens of the squares each attacks
+     * that do not hold a piece of its own colour.
+     */
+    public int getMobility(int color) {
+        computeAttacks();
+        return mobility[color];
+    }
+
+    /**
+     * Builds the attack maps of both colours in one pass over the pieces. Keeping them up to
+     * date move by move would mean following every slider ray through the squares a move
+     * touches; with magic lookups, rebuilding them once for a position that asks is cheaper.
+     */
+    private void computeAttacks() {
+        if (attacksValid) {
+            return;
+        }
+        long occupancy = colorBitboards[WHITE] | colorBitboards[BLACK];
+        for (int color = WHITE; color <= BLACK; color++) {
+            long own = colorBitboards[color];
+            long pawns = getPieces(color, PAWN);
+            long west = color == WHITE ? (pawns & ~FILE_A) << 7 : (pawns & ~FILE_A) >>> 9;
+            long east = color == WHITE ? (pawns & ~FILE_H) << 9 : (pawns & ~FILE_H) >>> 7;
+            long all = west | east;
+            pieceAttacks[color * 6 + PAWN] = all;
+            int reach = 0;
+            for (int type = KNIGHT; type <= KING; type++) {
+                long typeAttacks = 0L;
+                long pieces = getPieces(color, type);
+                while (pieces != 0) {
+                    int sq = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    long pieceAttack;
+                    switch (type) {
+                        case KNIGHT:
+                            pieceAttack = Attacks.getKnightAttacks(sq);
+                            break;
+                        case BISHOP:
+                            pieceAttack = Attacks.getBishopAttacks(sq, occupancy);
+                            break;
+                        case ROOK:
+                            pieceAttack = Attacks.getRookAttacks(sq, occupancy);
+                            break;
+                        case QUEEN:
+                            pieceAttack = Attacks.getQueenAttacks(sq, occupancy);
+                            break;
+                        default:
+                            pieceAttack = Attacks.getKingAttacks(sq);
+                            break;
+                    }
+                    if (type != KING) {
+                        reach += Long.bitCount(pieceAttack & ~own);
+                    }
+                    all |= pieceAttack;
+                    typeAttacks |= pieceAttack;
+                }
+                pieceAttacks[color * 6 + type] = typeAttacks;
+            }
+            attacks[color] = all;
+            mobility[color] = reach;
+        }
+        attacksValid = true;
+    }
+
+    /**
+     * Zobrist key of the pawns and kings only. Positions with the same pawn structure and king
+     * squares share it, whatever the other pieces.
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Piece points of the colour (pawn 1 ... queen 9), the king not counted.
+     */
+    public int getMaterial(int color) {
+        return material[color];
+    }
+
+    /**
+     * Sum of the middlegame piece-square values of the colour's pieces.
+     */
+    public int getMiddlegameScore(int color) {
+        return middlegameScore[color];
+    }
+
+    /**
+     * Sum of the endgame piece-square values of the colour's pieces.
+     */
+    public int getEndgameScore(int color) {
+        return endgameScore[color];
+    }
+
+    /**
+     * Game phase from {@link PieceSquareTables#MAX_PHASE} with all pieces on the board down
+     * to 0 with only kings and pawns; more than the maximum after promotions.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    public int getKingSquare(int color) {
+        long king = getPieces(color, KING);
+        return king == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(king);
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            zobristKey ^= Zobrist.getBlackToMoveKey();
+            this.sideToMove = sideToMove;
+        }
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        zobristKey ^= Zobrist.getCastlingKey(this.castlingRights) ^ Zobrist.getCastlingKey(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Sets the en-passant target square. It is only kept when a pawn of the side to move
+     * actually stands next to the pushed pawn, so equal positions always compare equal.
+     */
+    public void setEnPassantSquare(int enPassantSquare) {
+        zobristKey ^= Zobrist.getEnPassantKey(this.enPassantSquare);
+        this.enPassantSquare = NO_SQUARE;
+        if (enPassantSquare != NO_SQUARE
+                && (Attacks.getPawnAttacks(1 - sideToMove, enPassantSquare) & getPieces(sideToMove, PAWN)) != 0) {
+            this.enPassantSquare = enPassantSquare;
+        }
+        zobristKey ^= Zobrist.getEnPassantKey(this.enPassantSquare);
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Number of moves played with makeMove that can still be taken back.
+     */
+    public int getHistoryCount() {
+        return historyCount;
+    }
+
+    /**
+     * The move played last, {@link PackedMove#NONE} after a null move or when no move was played.
+     */
+    public int getLastMove() {
+        return historyCount == 0 ? PackedMove.NONE : historyMoves[historyCount - 1];
+    }
+
+    /**
+     * Whether the position is a draw by the fifty-move rule, or repeats a position of the
+     * moves played since the last capture or pawn move. The search scores one repetition
+     * as the draw: a line that repeats once can be repeated until it is one. The scan stops
+     * at a null move, since positions before it only come back because a turn was passed.
+     */
+    public boolean isDrawByRule() {
+        if (halfmoveClock >= 100) {
+            return true;
+        }
+        int earliest = Math.max(0, historyCount - halfmoveClock);
+        for (int i = historyCount - 1; i >= earliest; i--) {
+            if (historyMoves[i] == PackedMove.NONE) {
+                return false;
+            }
+            // Same side to move every second ply
+            if (((historyCount - i) & 1) == 0 && historyKeys[i] == zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the colour has a piece other than pawns and its king. Without one, zugzwang
+     * is common and passing the turn is no safe guess of the position's value.
+     */
+    public boolean hasNonPawnMaterial(int color) {
+        return (colorBitboards[color] & ~pieceBitboards[PAWN] & ~pieceBitboards[KING]) != 0;
+    }
+
+    // ---------------------------------------------------------------- attacks
+
+    /**
+     * All pieces of both colours that attack the square with the given occupancy.
+     */
+    public long getAttackersTo(int sq, long occupancy) {
+        long bishopsQueens = pieceBitboards[BISHOP] | pieceBitboards[QUEEN];
+        long rooksQueens = pieceBitboards[ROOK] | pieceBitboards[QUEEN];
+        return (Attacks.getPawnAttacks(BLACK, sq) & getPieces(WHITE, PAWN))
+                | (Attacks.getPawnAttacks(WHITE, sq) & getPieces(BLACK, PAWN))
+                | (Attacks.getKnightAttacks(sq) & pieceBitboards[KNIGHT])
+                | (Attacks.getKingAttacks(sq) & pieceBitboards[KING])
+                | (Attacks.getBishopAttacks(sq, occupancy) & bishopsQueens)
+                | (Attacks.getRookAttacks(sq, occupancy) & rooksQueens);
+    }
+
+    public boolean isSquareAttacked(int sq, int byColor) {
+        return isSquareAttacked(sq, byColor, colorBitboards[byColor], getOccupancy());
+    }
+
+    /**
+     * Attack test against a changed board: only the pieces in them count, and sliders are
+     * blocked by the given occupancy. Used to test squares the king moves to and en passant.
+     */
+    private boolean isSquareAttacked(int sq, int byColor, long them, long occupancy) {
+        if ((Attacks.getPawnAttacks(1 - byColor, sq) & pieceBitboards[PAWN] & them) != 0
+                || (Attacks.getKnightAttacks(sq) & pieceBitboards[KNIGHT] & them) != 0
+                || (Attacks.getKingAttacks(sq) & pieceBitboards[KING] & them) != 0) {
+            return true;
+        }
+        long bishopsQueens = (pieceBitboards[BISHOP] | pieceBitboards[QUEEN]) & them;
+        if (bishopsQueens != 0 && (Attacks.getBishopAttacks(sq, occupancy) & bishopsQueens) != 0) {
+            return true;
+        }
+        long rooksQueens = (pieceBitboards[ROOK] | pieceBitboards[QUEEN]) & them;
+        return rooksQueens != 0 && (Attacks.getRookAttacks(sq, occupancy) & rooksQueens) != 0;
+    }
+
+    /**
+     * Static exchange evaluation: the material balance, in piece points, for the side making
+     * the move when both sides keep capturing on its destination square with their least
+     * valuable attacker, and either side may stop when going on would lose material. Sliders
+     * behind a capturing piece join in as the square is cleared. No move is made; pins and
+     * checks are ignored.
+     */
+    public int staticExchange(int move) {
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        int[] gain = seeGain;
+        int depth = 0;
+        int side = getPieceColor(from);
+        long occupancy = getOccupancy() ^ (1L << from);
+        int onSquare;
+        if (PackedMove.isEnPassant(move)) {
+            gain[0] = POINTS[PAWN];
+            occupancy ^= 1L << (to + (side == WHITE ? -8 : 8));
+        } else {
+            gain[0] = squares[to] == NO_PIECE ? 0 : POINTS[getPieceType(to)];
+        }
+        if (PackedMove.isPromotion(move)) {
+            onSquare = PackedMove.getPromotion(move);
+            gain[0] += POINTS[onSquare] - POINTS[PAWN];
+        } else {
+            onSquare = getPieceType(from);
+        }
+
+        long bishopsQueens = pieceBitboards[BISHOP] | pieceBitboards[QUEEN];
+        long rooksQueens = pieceBitboards[ROOK] | pieceBitboards[QUEEN];
+        long attackers = getAttackersTo(to, occupancy) & occupancy;
+        while (true) {
+            side = 1 - side;
+            long sideAttackers = attackers & colorBitboards[side];
+            if (sideAttackers == 0) {
+                break;
+            }
+            int type = PAWN;
+            while ((sideAttackers & pieceBitboards[type]) == 0) {
+                type++;
+            }
+            // A king may only take last, when nothing defends the square any more
+            if (type == KING && (attackers & colorBitboards[1 - side]) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = POINTS[onSquare] - gain[depth - 1];
+            onSquare = type;
+            long attacker = sideAttackers & pieceBitboards[type];
+            occupancy ^= attacker & -attacker;
+            // Sliders lined up behind the piece that just captured
+            if (type == PAWN || type == BISHOP || type == QUEEN) {
+                attackers |= Attacks.getBishopAttacks(to, occupancy) & bishopsQueens;
+            }
+            if (type == ROOK || type == QUEEN) {
+                attackers |= Attacks.getRookAttacks(to, occupancy) & rooksQueens;
+            }
+            attackers &= occupancy;
+        }
+        // Each side only continues the exchange while it pays
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    public boolean isInCheck(int color) {
+        int king = getKingSquare(color);
+        return king != NO_SQUARE && isSquareAttacked(king, 1 - color);
+    }
+
+    // ---------------------------------------------------------- move generation
+
+    /**
+     * Adds all pseudo-legal moves of the side to move; moves may still leave the own king in check.
+     */
+    public void generateMoves(MoveList moves) {
+        generateMoves(moves, false);
+    }
+
+    /**
+     * Adds only the legal moves of the side to move. Checkers and pinned pieces are found once,
+     * then every piece is limited to the squares that block or capture a single checker and
+     * to its pin line, so no move has to be played to test it. Under double check only king
+     * moves are generated.
+     */
+    public void generateLegalMoves(MoveList moves) {
+        generateMoves(moves, true);
+    }
+
+    /**
+     * Adds the pseudo-legal captures and queen promotions of the side to move, the moves a
+     * quiescence search plays. Quiet moves, castling and underpromotions are never generated.
+     */
+    public void generateCaptures(MoveList moves) {
+        moves.clear();
+        int us = sideToMove;
+        long enemy = colorBitboards[1 - us];
+        long occupancy = colorBitboards[us] | enemy;
+
+        long pawns = getPieces(us, PAWN);
+        int forward = us == WHITE ? 8 : -8;
+        long promotionRank = us == WHITE ? RANK_8 : RANK_1;
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            int to = from + forward;
+            if (((1L << to) & promotionRank & ~occupancy) != 0) {
+                moves.add(PackedMove.create(from, to, QUEEN, 0));
+            }
+            long captures = Attacks.getPawnAttacks(us, from) & enemy;
+            while (captures != 0) {
+                int target = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (((1L << target) & promotionRank) != 0) {
+                    moves.add(PackedMove.create(from, target, QUEEN, PackedMove.CAPTURE));
+                } else {
+                    moves.add(PackedMove.create(from, target, PackedMove.CAPTURE));
+                }
+            }
+            if (enPassantSquare != NO_SQUARE && (Attacks.getPawnAttacks(us, from) & (1L << enPassantSquare)) != 0) {
+                moves.add(PackedMove.create(from, enPassantSquare, PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+            }
+        }
+
+        long knights = getPieces(us, KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(moves, from, Attacks.getKnightAttacks(from) & enemy, enemy);
+        }
+        long bishops = getPieces(us, BISHOP) | getPieces(us, QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            addMoves(moves, from, Attacks.getBishopAttacks(from, occupancy) & enemy, enemy);
+        }
+        long rooks = getPieces(us, ROOK) | getPieces(us, QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            addMoves(moves, from, Attacks.getRookAttacks(from, occupancy) & enemy, enemy);
+        }
+        int king = getKingSquare(us);
+        if (king != NO_SQUARE) {
+            addMoves(moves, king, Attacks.getKingAttacks(king) & enemy, enemy);
+        }
+    }
+
+    private void generateMoves(MoveList moves, boolean legal) {
+        moves.clear();
+        int us = sideToMove;
+        int them = 1 - us;
+        long own = colorBitboards[us];
+        long enemy = colorBitboards[them];
+        long occupancy = own | enemy;
+        int king = getKingSquare(us);
+
+        // Without a king there is nothing to keep safe, as in MoveUtilities.controlCheckState
+        boolean checkLegality = legal && king != NO_SQUARE;
+        long targetMask = ~0L;
+        long pinned = 0L;
+        long checkers = 0L;
+        if (checkLegality) {
+            checkers = getAttackersTo(king, occupancy) & enemy;
+            pinned = getPinnedPieces(us, king, occupancy);
+            // The king itself must not shield the squares behind it from a slider
+            long kingTargets = Attacks.getKingAttacks(king) & ~own;
+            long withoutKing = occupancy ^ (1L << king);
+            while (kingTargets != 0) {
+                int to = Long.numberOfTrailingZeros(kingTargets);
+                kingTargets &= kingTargets - 1;
+                if (!isSquareAttacked(to, them, enemy, withoutKing)) {
+                    moves.add(PackedMove.create(king, to, (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : 0));
+                }
+            }
+            if (Long.bitCount(checkers) > 1) {
+                return;
+            }
+            if (checkers != 0) {
+                targetMask = Attacks.getBetween(king, Long.numberOfTrailingZeros(checkers)) | checkers;
+            }
+        }
+
+        generatePawnMoves(moves, us, enemy, occupancy, targetMask, pinned, checkLegality ? king : NO_SQUARE);
+
+        long knights = getPieces(us, KNIGHT) & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(moves, from, Attacks.getKnightAttacks(from) & ~own & targetMask, enemy);
+        }
+        long bishops = getPieces(us, BISHOP) | getPieces(us, QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            long targets = Attacks.getBishopAttacks(from, occupancy) & ~own & targetMask;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Attacks.getLine(king, from);
+            }
+            addMoves(moves, from, targets, enemy);
+        }
+        long rooks = getPieces(us, ROOK) | getPieces(us, QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            long targets = Attacks.getRookAttacks(from, occupancy) & ~own & targetMask;
+            if ((pinned & (1L << from)) != 0) {
+                targets &= Attacks.getLine(king, from);
+            }
+            addMoves(moves, from, targets, enemy);
+        }
+        if (king != NO_SQUARE) {
+            if (!checkLegality) {
+                addMoves(moves, king, Attacks.getKingAttacks(king) & ~own, enemy);
+            }
+            if (checkers == 0) {
+                generateCastling(moves, us, king, occupancy);
+            }
+        }
+    }
+
+    /**
+     * Own pieces that are the only blocker between the king and an enemy slider.
+     */
+    private long getPinnedPieces(int us, int king, long occupancy) {
+        long enemy = colorBitboards[1 - us];
+        long snipers = ((Attacks.getRookAttacks(king, 0L) & (pieceBitboards[ROOK] | pieceBitboards[QUEEN]))
+                | (Attacks.getBishopAttacks(king, 0L) & (pieceBitboards[BISHOP] | pieceBitboards[QUEEN]))) & enemy;
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.getBetween(king, sniper) & occupancy;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & colorBitboards[us];
+            }
+        }
+        return pinned;
+    }
+
+    private void addMoves(MoveList moves, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(PackedMove.create(from, to, (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : 0));
+        }
+    }
+
+    /**
+     * Pawn moves limited to targetMask and, for pinned pawns, to the pin line. With king set to
+     * NO_SQUARE nothing is checked and en passant is added whenever it is available.
+     */
+    private void generatePawnMoves(MoveList moves, int us, long enemy, long occupancy,
+            long targetMask, long pinned, int king) {
+        long pawns = getPieces(us, PAWN);
+        int forward = us == WHITE ? 8 : -8;
+        long promotionRank = us == WHITE ? RANK_8 : RANK_1;
+        long doublePushRank = us == WHITE ? RANK_1 << 16 : RANK_1 << 40;
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = (pinned & (1L << from)) != 0 ? targetMask & Attacks.getLine(king, from) : targetMask;
+            int to = from + forward;
+            if ((occupancy & (1L << to)) == 0) {
+                if ((allowed & (1L << to)) != 0) {
+                    addPawnMove(moves, from, to, 0, promotionRank);
+                }
+                int twoSquares = to + forward;
+                if (((1L << to) & doublePushRank) != 0 && (occupancy & (1L << twoSquares)) == 0
+                        && (allowed & (1L << twoSquares)) != 0) {
+                    moves.add(PackedMove.create(from, twoSquares, PackedMove.DOUBLE_PUSH));
+                }
+            }
+            long captures = Attacks.getPawnAttacks(us, from) & enemy & allowed;
+            while (captures != 0) {
+                int target = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                addPawnMove(moves, from, target, PackedMove.CAPTURE, promotionRank);
+            }
+            if (enPassantSquare != NO_SQUARE && (Attacks.getPawnAttacks(us, from) & (1L << enPassantSquare)) != 0
+                    && (king == NO_SQUARE || isLegalEnPassant(us, king, from, occupancy))) {
+                moves.add(PackedMove.create(from, enPassantSquare, PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+            }
+        }
+    }
+
+    /**
+     * En passant empties two squares on one rank, which can expose the king sideways even when
+     * neither pawn is pinned, so the king is tested on the board after the capture.
+     */
+    private boolean isLegalEnPassant(int us, int king, int from, long occupancy) {
+        long captured = 1L << (enPassantSquare + (us == WHITE ? -8 : 8));
+        long after = (occupancy ^ (1L << from) ^ captured) | (1L << enPassantSquare);
+        return !isSquareAttacked(king, 1 - us, colorBitboards[1 - us] & ~captured, after);
+    }
+
+    private void addPawnMove(MoveList moves, int from, int to, int flags, long promotionRank) {
+        if (((1L << to) & promotionRank) != 0) {
+            for (int type : PROMOTION_TYPES) {
+                moves.add(PackedMove.create(from, to, type, flags));
+            }
+        } else {
+            moves.add(PackedMove.create(from, to, flags));
+        }
+    }
+
+    private void generateCastling(MoveList moves, int us, int king, long occupancy) {
+        int rights = castlingRights & (us == WHITE ? WHITE_KINGSIDE | WHITE_QUEENSIDE : BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        if (rights == 0 || isSquareAttacked(king, 1 - us)) {
+            return;
+        }
+        int them = 1 - us;
+        int kingSide = us == WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        if ((rights & kingSide) != 0 && (occupancy & (3L << (king + 1))) == 0
+                && !isSquareAttacked(king + 1, them) && !isSquareAttacked(king + 2, them)) {
+            moves.add(PackedMove.create(king, king + 2, PackedMove.CASTLE));
+        }
+        int queenSide = us == WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if ((rights & queenSide) != 0 && (occupancy & (7L << (king - 3))) == 0
+                && !isSquareAttacked(king - 1, them) && !isSquareAttacked(king - 2, them)) {
+            moves.add(PackedMove.create(king, king - 2, PackedMove.CASTLE));
+        }
+    }
+
+    // ------------------------------------------------------------ make / unmake
+
+    /**
+     * Plays a pseudo-legal move. When it leaves the mover's king in check the move is taken
+     * back again and false is returned, so callers can skip illegal moves cheaply.
+     */
+    public boolean makeMove(int move) {
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        int us = sideToMove;
+        int piece = squares[from];
+        int type = piece % 6;
+
+        int capturedSquare = PackedMove.isEnPassant(move) ? to + (us == WHITE ? -8 : 8) : to;
+        int captured = squares[capturedSquare];
+
+        historyMoves[historyCount] = move;
+        historyCaptured[historyCount] = captured;
+        historyCastling[historyCount] = castlingRights;
+        historyEnPassant[historyCount] = enPassantSquare;
+        historyHalfmoveClock[historyCount] = halfmoveClock;
+        historyKeys[historyCount] = zobristKey;
+        historyCount++;
+
+        if (captured != NO_PIECE) {
+            clearSquare(capturedSquare);
+        }
+        clearSquare(from);
+        setPiece(to, us, PackedMove.isPromotion(move) ? PackedMove.getPromotion(move) : type);
+        if (PackedMove.isCastle(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            clearSquare(rookFrom);
+            setPiece(rookTo, us, ROOK);
+        }
+
+        halfmoveClock = (type == PAWN || captured != NO_PIECE) ? 0 : halfmoveClock + 1;
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        setSideToMove(1 - us);
+        setEnPassantSquare(PackedMove.isDoublePush(move) ? (from + to) / 2 : NO_SQUARE);
+
+        int king = getKingSquare(us);
+        if (king != NO_SQUARE && isSquareAttacked(king, 1 - us)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        historyCount--;
+        int move = historyMoves[historyCount];
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        int us = 1 - sideToMove;
+        int type = PackedMove.isPromotion(move) ? PAWN : squares[to] % 6;
+
+        clearSquare(to);
+        setPiece(from, us, type);
+        if (PackedMove.isCastle(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            clearSquare(rookTo);
+            setPiece(rookFrom, us, ROOK);
+        }
+        int captured = historyCaptured[historyCount];
+        if (captured != NO_PIECE) {
+            int capturedSquare = PackedMove.isEnPassant(move) ? to + (us == WHITE ? -8 : 8) : to;
+            setPiece(capturedSquare, captured / 6, captured % 6);
+        }
+
+        sideToMove = us;
+        castlingRights = historyCastling[historyCount];
+        enPassantSquare = historyEnPassant[historyCount];
+        halfmoveClock = historyHalfmoveClock[historyCount];
+        zobristKey = historyKeys[historyCount];
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning; the side to move must not be in
+     * check. Take it back with {@link #unmakeNullMove()}.
+     */
+    public void makeNullMove() {
+        historyMoves[historyCount] = PackedMove.NONE;
+        historyCaptured[historyCount] = NO_PIECE;
+        historyCastling[historyCount] = castlingRights;
+        historyEnPassant[historyCount] = enPassantSquare;
+        historyHalfmoveClock[historyCount] = halfmoveClock;
+        historyKeys[historyCount] = zobristKey;
+        historyCount++;
+
+        halfmoveClock++;
+        setSideToMove(1 - sideToMove);
+        setEnPassantSquare(NO_SQUARE);
+    }
+
+    public void unmakeNullMove() {
+        historyCount--;
+        sideToMove = 1 - sideToMove;
+        castlingRights = historyCastling[historyCount];
+        enPassantSquare = historyEnPassant[historyCount];
+        halfmoveClock = historyHalfmoveClock[historyCount];
+        zobristKey = historyKeys[historyCount];
+    }
+
+    public static int square(int x, int y) {
+        return (7 - y) * 8 + x;
+    }
+
+    public static int xOf(int sq) {
+        return sq & 7;
+    }
+
+    public static int yOf(int sq) {
+        return 7 - (sq >>> 3);
+    }
+
+    public static int colorOf(Team team) {
+        return team == Team.BLACK ? BLACK : WHITE;
+    }
+
+    public static Team teamOf(int color) {
+        return color == BLACK ? Team.BLACK : Team.WHITE;
+    }
+
+    public static int typeOf(PieceTypes pieceType) {
+        switch (pieceType) {
+            case PAWN:
+                return PAWN;
+            case KNIGHT:
+                return KNIGHT;
+            case BISHOP:
+                return BISHOP;
+            case ROOK:
+                return ROOK;
+            case QUEEN:
+                return QUEEN;
+            case KING:
+                return KING;
+            default:
+                return NO_PIECE;
+        }
+    }
+
+    public static PieceTypes pieceTypeOf(int type) {
+        switch (type) {
+            case PAWN:
+                return PieceTypes.PAWN;
+            case KNIGHT:
+                return PieceTypes.KNIGHT;
+            case BISHOP:
+                return PieceTypes.BISHOP;
+            case ROOK:
+                return PieceTypes.ROOK;
+            case QUEEN:
+                return PieceTypes.QUEEN;
+            case KING:
+                return PieceTypes.KING;
+            default:
+                return PieceTypes.EMPTY;
+        }
+    }
+
+    public static Piece createPiece(int type, Team team) {
+        switch (type) {
+            case PAWN:
+                return new Pawn(team);
+            case KNIGHT:
+                return new Knight(team);
+            case BISHOP:
+                return new Bishop(team);
+            case ROOK:
+                return new Rook(team);
+            case QUEEN:
+                return new Queen(team);
+            default:
+                return new King(team);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String symbols = "PNBRQKpnbrqk";
+        StringBuilder builder = new StringBuilder();
+        for (int rank = 7; rank >= 0; rank--) {
+            for (int file = 0; file < 8; file++) {
+                int piece = squares[rank * 8 + file];
+                builder.append(piece == NO_PIECE ? '.' : symbols.charAt(piece));
+            }
+            builder.append('\n');
+        }
+        builder.append(sideToMove == WHITE ? "White" : "Black").append(" to move");
+        return builder.toString();
+    }
+}
@@ -30,6 +30,12 @@ public class Board implements java.io.Serializable{
     private Tile chosenTile = null;
     private Tile enPassantTargetTile = null;
     private chess_game.Move.Move lastMove = null;
+    // Undo records for makeMove/unmakeMove. Entries are reused, so searching does not allocate per node.
+    private transient MoveUndo[] undoStack;
+    private transient int undoCount = 0;
+    // Zobrist hash of the piece placement, updated by makeMove/unmakeMove
+    private transient long pieceKey;
+    private transient boolean pieceKeyValid = false;
 
     public Player getWhitePlayer() {
         return whitePlayer;
@@ -145,6 +151,276 @@ public class Board implements java.io.Serializable{
         this.lastMove = lastMove;
     }
 
+    /**
+     * Plays the move on this board so that it can be taken back with {@link #unmakeMove()}.
+     * Tiles are resolved by coordinate, so the move may come from another board (a copy,
+     * or a deserialized network move). The current player is not changed, like Player.makeMove.
+     */
+    public void makeMove(chess_game.Move.Move move) {
+        Tile fromTile = getTile(move.getCurrentTile().getCoordinate());
+        Tile toTile = getTile(move.getDestinationTile().getCoordinate());
+        Piece movedPiece = fromTile.getPiece();
+        if (!pieceKeyValid) {
+            recomputeZobristKey();
+        }
+
+        MoveUndo undo = pushUndo();
+        undo.pieceKey = pieceKey;
+        undo.fromTile = fromTile;
+        undo.toTile = toTile;
+        undo.movedPiece = movedPiece;
+        undo.movedPieceHadMoved = hasMoved(movedPiece);
+        undo.capturedTile = toTile;
+        undo.capturedPiece = toTile.getPiece();
+        undo.rookStartTile = null;
+        undo.rookEndTile = null;
+        undo.lastMove = lastMove;
+        undo.enPassantTargetTile = enPassantTargetTile;
+
+        if (move.isCastlingMove()) {
+            Tile rookStartTile = getTile(move.getRookStartTile().getCoordinate());
+            Tile rookEndTile = getTile(move.getRookEndTile().getCoordinate());
+            Piece rook = rookStartTile.getPiece();
+            undo.rookStartTile = rookStartTile;
+            undo.rookEndTile = rookEndTile;
+            undo.rookHadMoved = hasMoved(rook);
+            rookStartTile.setPiece(null);
+            rookEndTile.setPiece(rook);
+            setHasMoved(rook, true);
+            pieceKey ^= pieceKeyAt(rook, rookStartTile) ^ pieceKeyAt(rook, rookEndTile);
+        } else if (move.isEnPassantMove()) {
+            Tile capturedTile = getTile(move.getEnPassantCapturedTile().getCoordinate());
+            undo.capturedTile = capturedTile;
+            undo.capturedPiece = capturedTile.getPiece();
+            capturedTile.setPiece(null);
+        }
+
+        fromTile.setPiece(null);
+        if (move.isPromotionMove() && movedPiece != null) {
+            toTile.setPiece(createPromotionPiece(move.getPromotionPieceType(), movedPiece.getTeam()));
+        } else {
+            toTile.setPiece(movedPiece);
+            setHasMoved(movedPiece, true);
+        }
+        pieceKey ^= pieceKeyAt(movedPiece, fromTile) ^ pieceKeyAt(undo.capturedPiece, undo.capturedTile)
+                ^ pieceKeyAt(toTile.getPiece(), toTile);
+
+        int fromY = fromTile.getCoordinate().getY();
+        int toY = toTile.getCoordinate().getY();
+        if (movedPiece != null && movedPiece.getType() == PieceTypes.PAWN && Math.abs(fromY - toY) == 2) {
+            enPassantTargetTile = getTile(toTile.getCoordinate().getX(), (fromY + toY) / 2);
+        } else {
+            enPassantTargetTile = null;
+        }
+        lastMove = move;
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(chess_game.Move.Move)}, restoring
+     * captured pieces, hasMoved flags, the en passant target and the last move.
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        MoveUndo undo = undoStack[--undoCount];
+        undo.toTile.setPiece(null);
+        undo.capturedTile.setPiece(undo.capturedPiece);
+        undo.fromTile.setPiece(undo.movedPiece);
+        setHasMoved(undo.movedPiece, undo.movedPieceHadMoved);
+        if (undo.rookStartTile != null) {
+            Piece rook = undo.rookEndTile.getPiece();
+            undo.rookEndTile.setPiece(null);
+            undo.rookStartTile.setPiece(rook);
+            setHasMoved(rook, undo.rookHadMoved);
+        }
+        lastMove = undo.lastMove;
+        enPassantTargetTile = undo.enPassantTargetTile;
+        pieceKey = undo.pieceKey;
+
+        undo.release();
+    }
+
+    /**
+     * Plays a game move for good: like {@link #makeMove(chess_game.Move.Move)}, but it cannot
+     * be taken back, so no undo record is kept. Moves of the game are never unmade, and a kept
+     * record would hold on to the previous move and, through it, the board it was made on.
+     * Any moves still open for unmakeMove are committed along with it.
+     */
+    public void commitMove(chess_game.Move.Move move) {
+        makeMove(move);
+        for (int i = 0; i < undoCount; i++) {
+            undoStack[i].release();
+        }
+        undoCount = 0;
+    }
+
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    /**
+     * 64-bit Zobrist key of the position: pieces, side to move (the current player),
+     * castling rights and the en-passant file. Equal positions always give equal keys.
+     */
+    public long getZobristKey() {
+        if (!pieceKeyValid) {
+            recomputeZobristKey();
+        }
+        long key = pieceKey ^ Zobrist.getCastlingKey(getCastlingRights()) ^ Zobrist.getEnPassantKey(getEnPassantSquare());
+        if (currentPlayer.getTeam() == Team.BLACK) {
+            key ^= Zobrist.getBlackToMoveKey();
+        }
+        return key;
+    }
+
+    /**
+     * Rebuilds the piece part of the Zobrist key from the tiles. Needed only after pieces
+     * were placed with Tile.setPiece directly instead of through makeMove.
+     */
+    public void recomputeZobristKey() {
+        pieceKey = Zobrist.computePieceKey(this);
+        pieceKeyValid = true;
+    }
+
+    private static long pieceKeyAt(Piece piece, Tile tile) {
+        if (piece == null) {
+            return 0L;
+        }
+        return Zobrist.getPieceSquareKey(piece, tile.getCoordinate().getX(), tile.getCoordinate().getY());
+    }
+
+    /**
+     * Castling rights as a BitBoard mask, derived from unmoved kings and rooks on their home squares.
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        if (hasUnmovedKing(4, 7, Team.WHITE)) {
+            if (hasUnmovedRook(7, 7, Team.WHITE)) rights |= BitBoard.WHITE_KINGSIDE;
+            if (hasUnmovedRook(0, 7, Team.WHITE)) rights |= BitBoard.WHITE_QUEENSIDE;
+        }
+        if (hasUnmovedKing(4, 0, Team.BLACK)) {
+            if (hasUnmovedRook(7, 0, Team.BLACK)) rights |= BitBoard.BLACK_KINGSIDE;
+            if (hasUnmovedRook(0, 0, Team.BLACK)) rights |= BitBoard.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private boolean hasUnmovedKing(int x, int y, Team team) {
+        Piece piece = tiles[x][y].getPiece();
+        return piece instanceof King && piece.getTeam() == team && !((King) piece).hasMoved();
+    }
+
+    private boolean hasUnmovedRook(int x, int y, Team team) {
+        Piece piece = tiles[x][y].getPiece();
+        return piece instanceof Rook && piece.getTeam() == team && !((Rook) piece).hasMoved();
+    }
+
+    /**
+     * En-passant target as a BitBoard square, or BitBoard.NO_SQUARE. Like BitBoard it is only
+     * reported when the last move was a double pawn push and a pawn of the current player
+     * stands next to the pushed pawn.
+     */
+    public int getEnPassantSquare() {
+        if (lastMove == null || lastMove.getMovedPiece() == null || lastMove.getMovedPiece().getType() != PieceTypes.PAWN
+                || lastMove.getCurrentTile() == null || lastMove.getDestinationTile() == null) {
+            return BitBoard.NO_SQUARE;
+        }
+        Coordinate from = lastMove.getCurrentTile().getCoordinate();
+        Coordinate to = lastMove.getDestinationTile().getCoordinate();
+        if (from.getX() != to.getX() || Math.abs(from.getY() - to.getY()) != 2) {
+            return BitBoard.NO_SQUARE;
+        }
+        Team side = currentPlayer.getTeam();
+        Piece pushed = tiles[to.getX()][to.getY()].getPiece();
+        if (pushed == null || pushed.getType() != PieceTypes.PAWN || pushed.getTeam() == side) {
+            return BitBoard.NO_SQUARE;
+        }
+        for (int dx = -1; dx <= 1; dx += 2) {
+            int x = to.getX() + dx;
+            if (x < 0 || x > 7) {
+                continue;
+            }
+            Piece neighbour = tiles[x][to.getY()].getPiece();
+            if (neighbour != null && neighbour.getType() == PieceTypes.PAWN && neighbour.getTeam() == side) {
+                return BitBoard.square(to.getX(), (from.getY() + to.getY()) / 2);
+            }
+        }
+        return BitBoard.NO_SQUARE;
+    }
+
+    private MoveUndo pushUndo() {
+        if (undoStack == null) {
+            undoStack = new MoveUndo[64];
+        } else if (undoCount == undoStack.length) {
+            undoStack = java.util.Arrays.copyOf(undoStack, undoStack.length * 2);
+        }
+        MoveUndo undo = undoStack[undoCount];
+        if (undo == null) {
+            undo = new MoveUndo();
+            undoStack[undoCount] = undo;
+        }
+        undoCount++;
+        return undo;
+    }
+
+    private static boolean hasMoved(Piece piece) {
+        if (piece instanceof King) {
+            return ((King) piece).hasMoved();
+        }
+        if (piece instanceof Rook) {
+            return ((Rook) piece).hasMoved();
+        }
+        return false;
+    }
+
+    private static void setHasMoved(Piece piece, boolean hasMoved) {
+        if (piece instanceof King) {
+            ((King) piece).setHasMoved(hasMoved);
+        } else if (piece instanceof Rook) {
+            ((Rook) piece).setHasMoved(hasMoved);
+        }
+    }
+
+    private static Piece createPromotionPiece(PieceTypes pieceType, Team team) {
+        if (pieceType == null) {
+            return new Queen(team);
+        }
+        switch (pieceType) {
+            case ROOK:
+                return new Rook(team);
+            case BISHOP:
+                return new Bishop(team);
+            case KNIGHT:
+                return new Knight(team);
+            default:
+                return new Queen(team); // Default to queen
+        }
+    }
+
+    // Everything needed to take one move back
+    private static class MoveUndo {
+        Tile fromTile;
+        Tile toTile;
+        Tile capturedTile;
+        Tile rookStartTile;
+        Tile rookEndTile;
+        Piece movedPiece;
+        Piece capturedPiece;
+        boolean movedPieceHadMoved;
+        boolean rookHadMoved;
+        chess_game.Move.Move lastMove;
+        Tile enPassantTargetTile;
+        long pieceKey;
+
+        // Drops references so the reused record does not keep old pieces and moves alive
+        void release() {
+            movedPiece = null;
+            capturedPiece = null;
+            lastMove = null;
+        }
+    }
+
     public Board deepCopy() {
         Board copy = new Board();
         // Copy tiles and pieces
@@ -175,6 +451,8 @@ public class Board implements java.io.Serializable{
         copy.whitePlayer = new chess_game.Player.Player(Team.WHITE);
         copy.blackPlayer = new chess_game.Player.Player(Team.BLACK);
         copy.currentPlayer = (this.currentPlayer.getTeam() == Team.WHITE) ? copy.whitePlayer : copy.blackPlayer;
+        copy.pieceKey = this.pieceKey;
+        copy.pieceKeyValid = this.pieceKeyValid;
         return copy;
     }
 }
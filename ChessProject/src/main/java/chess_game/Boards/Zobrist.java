@@ -0,0 +1,95 @@
+package chess_game.Boards;
+
+import chess_game.Pieces.Piece;
+
+/**
+ * Zobrist keys for hashing positions into a single 64-bit number.
+ * A position key is the XOR of one random number per (piece, square), plus
+ * numbers for the side to move, the castling rights and the en-passant file.
+ * The keys are generated from a fixed seed so hashes are stable between runs.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x3C6EF372FE94F82BL;
+
+    // [colour * 6 + type][square]
+    private static final long[][] PIECE_SQUARE_KEYS = new long[12][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_FILE_KEYS = new long[8];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        java.util.Random random = new java.util.Random(SEED);
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE_KEYS[piece][sq] = random.nextLong();
+            }
+        }
+        // No rights hashes to zero so a bare position only depends on its pieces
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE_KEYS[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long getPieceSquareKey(int color, int type, int sq) {
+        return PIECE_SQUARE_KEYS[color * 6 + type][sq];
+    }
+
+    public static long getPieceSquareKey(Piece piece, int x, int y) {
+        return PIECE_SQUARE_KEYS[BitBoard.colorOf(piece.getTeam()) * 6 + BitBoard.typeOf(piece.getType())][BitBoard.square(x, y)];
+    }
+
+    public static long getCastlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights & 15];
+    }
+
+    public static long getEnPassantKey(int enPassantSquare) {
+        return enPassantSquare == BitBoard.NO_SQUARE ? 0L : EN_PASSANT_FILE_KEYS[enPassantSquare & 7];
+    }
+
+    public static long getBlackToMoveKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    /**
+     * Hash of the piece placement of a Board only. Board keeps this part up to date
+     * incrementally and adds the side, castling and en-passant keys on request.
+     */
+    public static long computePieceKey(Board board) {
+        long key = 0L;
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                Piece piece = board.getTile(x, y).getPiece();
+                if (piece != null) {
+                    key ^= getPieceSquareKey(piece, x, y);
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Full key of a bitboard position. Equal to {@link Board#getZobristKey()} for the same position.
+     */
+    public static long computeKey(BitBoard position) {
+        long key = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            if (!position.isEmpty(sq)) {
+                key ^= getPieceSquareKey(position.getPieceColor(sq), position.getPieceType(sq), sq);
+            }
+        }
+        key ^= getCastlingKey(position.getCastlingRights());
+        key ^= getEnPassantKey(position.getEnPassantSquare());
+        if (position.getSideToMove() == BitBoard.BLACK) {
+            key ^= BLACK_TO_MOVE_KEY;
+        }
+        return key;
+    }
+}
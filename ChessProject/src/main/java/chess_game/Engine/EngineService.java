@@ -0,0 +1,111 @@
+package chess_game.Engine;
+
+import chess_game.Boards.Board;
+import chess_game.ChessAI;
+import chess_game.Move.Move;
+import chess_game.Pieces.Team;
+
+/**
+ * The one ChessAI of the application, shared by the AI player and the tutor hints.
+ *
+ * Creating a ChessAI starts a worker pool, loads the learning data from disk and
+ * allocates the transposition table, so doing that for every move made each turn
+ * slower as the game went on. The service creates the engine once, on first use,
+ * and keeps it for the whole session: the table stays warm between moves, and a
+ * hint search also fills it for the AI's reply.
+ *
+ * Searches are serialized; the AI turn and a hint never run at the same time.
+ * Every search is time-limited (see {@link TimeManager}); the depth is only a cap.
+ */
+public final class EngineService {
+
+    // Deepest iteration a search may reach; in practice the time budget ends it first
+    public static final int DEFAULT_DEPTH = 20;
+
+    private static EngineService instance;
+
+    private final ChessAI ai;
+    private int searches = 0;
+    private long totalSearchMillis = 0;
+
+    private EngineService(int depth) {
+        this.ai = new ChessAI(depth);
+        // Lets pending learning data be written when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(ai::shutdown, "engine-shutdown"));
+    }
+
+    public static synchronized EngineService getInstance() {
+        if (instance == null) {
+            instance = new EngineService(DEFAULT_DEPTH);
+        }
+        return instance;
+    }
+
+    /**
+     * Best move for the given team within the default movetime. Safe to call from any
+     * thread, e.g. a SwingWorker.
+     */
+    public Move getBestMove(Board board, Team team) {
+        return getBestMove(board, team, TimeManager.DEFAULT_MOVE_TIME_MS);
+    }
+
+    /**
+     * Best move for the given team, searched for at most moveTimeMillis.
+     */
+    public synchronized Move getBestMove(Board board, Team team, long moveTimeMillis) {
+        long start = System.currentTimeMillis();
+        try {
+            return ai.getBestMove(board, team, moveTimeMillis);
+        } finally {
+            searches++;
+            totalSearchMillis += System.currentTimeMillis() - start;
+        }
+    }
+
+    /**
+     * Best move for the given team together with the line the search expects after it,
+     * taken under the same lock so another search cannot replace the line in between.
+     */
+    public synchronized SearchResult analyze(Board board, Team team, long moveTimeMillis) {
+        Move move = getBestMove(board, team, moveTimeMillis);
+        return new SearchResult(move, move == null ? "" : ai.getPrincipalVariation());
+    }
+
+    /**
+     * A move and the line the search expects, starting with that move, in coordinate
+     * notation ("e2e4 e7e5 g1f3").
+     */
+    public static final class SearchResult {
+        private final Move move;
+        private final String principalVariation;
+
+        SearchResult(Move move, String principalVariation) {
+            this.move = move;
+            this.principalVariation = principalVariation;
+        }
+
+        /**
+         * @return the move, null when the side to move has none
+         */
+        public Move getMove() {
+            return move;
+        }
+
+        public String getPrincipalVariation() {
+            return principalVariation;
+        }
+    }
+
+    /**
+     * Forgets the positions of the previous game. Entries would be replaced over time
+     * anyway, but they are of no use once a different game starts.
+     */
+    public synchronized void newGame() {
+        ai.clearTranspositionTable();
+    }
+
+    public synchronized String getStats() {
+        return String.format("Searches: %d, Average time: %d ms, Last depth: %d, %s", searches,
+                searches > 0 ? totalSearchMillis / searches : 0, ai.getLastSearchDepth(), ai.getCacheStats());
+    }
+}
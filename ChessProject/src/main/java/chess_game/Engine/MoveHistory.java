@@ -0,0 +1,89 @@
+package chess_game.Engine;
+
+import chess_game.Move.PackedMove;
+
+/**
+ * Ordering memory for quiet moves, kept by one search thread.
+ *
+ * Killer moves are the last two quiet moves that caused a beta cutoff at a ply;
+ * a sibling position often has the same refutation. The history table counts
+ * cutoffs by side, from and to square across the whole tree, weighted by the
+ * square of the remaining depth, so quiet moves that worked elsewhere are tried
+ * before the rest.
+ *
+ * Each thread owns its own instance, so nothing here is synchronized.
+ */
+public class MoveHistory {
+
+    public static final int KILLERS_PER_PLY = 2;
+    // Scores stay below this; when an entry reaches it the whole table is halved
+    private static final int MAX_HISTORY = 50000;
+
+    private final int[][] killers;
+    private final int[] history = new int[2 * 64 * 64];
+    private int searchId = -1;
+
+    /**
+     * @param maxPly deepest ply killers are kept for
+     */
+    public MoveHistory(int maxPly) {
+        this.killers = new int[maxPly][KILLERS_PER_PLY];
+    }
+
+    /**
+     * Called before the thread uses the tables. On the first call of a new search the killers
+     * are dropped, since plies now mean other positions, and the history is halved, so recent
+     * cutoffs count more than those of earlier moves.
+     */
+    public void startSearch(int searchId) {
+        if (this.searchId == searchId) {
+            return;
+        }
+        this.searchId = searchId;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = PackedMove.NONE;
+            plyKillers[1] = PackedMove.NONE;
+        }
+        age();
+    }
+
+    /**
+     * @return 0 when move is the first killer of the ply, 1 when it is the second, -1 otherwise
+     */
+    public int killerSlot(int ply, int move) {
+        int[] plyKillers = killers[ply];
+        if (PackedMove.sameSquares(plyKillers[0], move)) return 0;
+        if (PackedMove.sameSquares(plyKillers[1], move)) return 1;
+        return -1;
+    }
+
+    public int getHistory(int side, int move) {
+        return history[index(side, move)];
+    }
+
+    /**
+     * Records a quiet move that failed high with depth plies left.
+     */
+    public void recordCutoff(int side, int move, int depth, int ply) {
+        int[] plyKillers = killers[ply];
+        if (!PackedMove.sameSquares(plyKillers[0], move)) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int i = index(side, move);
+        history[i] += depth * depth;
+        if (history[i] >= MAX_HISTORY) {
+            age();
+        }
+    }
+
+    private void age() {
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    private static int index(int side, int move) {
+        return (side << 12) | (PackedMove.getFrom(move) << 6) | PackedMove.getTo(move);
+    }
+}
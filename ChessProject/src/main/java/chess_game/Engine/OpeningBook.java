@@ -0,0 +1,210 @@
+package chess_game.Engine;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Move.MoveList;
+import chess_game.Move.PackedMove;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Opening book read straight from a memory-mapped file.
+ *
+ * File layout (big-endian): the int {@link #MAGIC}, the number of entries as an int, then
+ * the entries sorted by key as unsigned numbers. An entry is 12 bytes: the Zobrist key of
+ * the position (see {@link BitBoard#getZobristKey()}), the book move as a short and its
+ * weight as an unsigned short. A position with several book moves has one entry per move,
+ * next to each other. Only the squares and promotion piece of a move are stored (the low
+ * 15 bits of a PackedMove); the caller matches them against its legal moves with
+ * {@link PackedMove#sameSquares(int, int)}.
+ *
+ * A lookup is a binary search over the mapping, so the book costs no heap however large
+ * the file is, and the one instance of {@link #getDefault()} serves every game in the
+ * process. The mapping is only read with absolute gets, which is safe from any thread.
+ */
+public final class OpeningBook {
+
+    public static final String DEFAULT_FILE = "opening_book.bin";
+
+    private static final int MAGIC = 0x4F424B31; // "OBK1"
+    private static final int HEADER_BYTES = 8;
+    private static final int ENTRY_BYTES = 12;
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private static OpeningBook defaultBook;
+    private static boolean defaultLoaded = false;
+
+    private final MappedByteBuffer buffer;
+    private final int entries;
+
+    private OpeningBook(MappedByteBuffer buffer, int entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * Maps a book file. The mapping stays valid after the file is closed.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            int entries = buffer.getInt(4);
+            if (entries < 0 || HEADER_BYTES + (long) entries * ENTRY_BYTES != size) {
+                throw new IOException("Opening book has the wrong size: " + file);
+            }
+            return new OpeningBook(buffer, entries);
+        }
+    }
+
+    /**
+     * The book in {@link #DEFAULT_FILE} of the working directory, mapped on the first call
+     * and shared from then on.
+     * @return the book, or null when there is no readable book file
+     */
+    public static synchronized OpeningBook getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            Path file = Paths.get(DEFAULT_FILE);
+            if (Files.exists(file)) {
+                try {
+                    defaultBook = open(file);
+                    System.out.println("Opening book loaded: " + defaultBook.size() + " entries");
+                } catch (IOException e) {
+                    System.err.println("Error loading opening book: " + e.getMessage());
+                }
+            }
+        }
+        return defaultBook;
+    }
+
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Picks one of the book moves of a position at random, in proportion to their weights.
+     * @return the move's squares and promotion piece, or PackedMove.NONE when the position
+     *         is not in the book
+     */
+    public int chooseMove(long key, Random random) {
+        int first = firstEntry(key);
+        int total = 0;
+        int last = first;
+        for (; last < entries && keyAt(last) == key; last++) {
+            total += weightAt(last);
+        }
+        if (total == 0) {
+            return PackedMove.NONE;
+        }
+        int pick = random.nextInt(total);
+        for (int i = first; i < last; i++) {
+            pick -= weightAt(i);
+            if (pick < 0) {
+                return moveAt(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    // Index of the first entry whose key is not below key
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    private int moveAt(int index) {
+        return buffer.getShort(HEADER_BYTES + index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weightAt(int index) {
+        return buffer.getShort(HEADER_BYTES + index * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+
+    /**
+     * Writes a book from opening lines, each a list of moves from the initial position in
+     * coordinate notation ("e2e4 e7e5 g1f3"). A move's weight is the number of lines that
+     * play it in that position, so lines sharing a start make their common moves likelier.
+     * @throws IllegalArgumentException when a line holds a move that is not legal
+     */
+    public static void write(Path file, List<String> lines) throws IOException {
+        // Key -> (move -> weight), moves in the order the lines first play them
+        Map<Long, Map<Integer, Integer>> book = new HashMap<>();
+        MoveList legalMoves = new MoveList();
+        for (String line : lines) {
+            BitBoard position = BitBoard.fromFen(BitBoard.START_FEN);
+            for (String token : line.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int move = findMove(position, token, legalMoves);
+                if (move == PackedMove.NONE) {
+                    throw new IllegalArgumentException("Illegal move " + token + " in book line: " + line);
+                }
+                book.computeIfAbsent(position.getZobristKey(), key -> new LinkedHashMap<>())
+                        .merge(move & 0x7FFF, 1, Integer::sum);
+                position.makeMove(move);
+            }
+        }
+
+        List<Long> keys = new ArrayList<>(book.keySet());
+        keys.sort(Long::compareUnsigned);
+        int entries = 0;
+        for (Map<Integer, Integer> moves : book.values()) {
+            entries += moves.size();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(entries);
+            for (long key : keys) {
+                for (Map.Entry<Integer, Integer> move : book.get(key).entrySet()) {
+                    out.writeLong(key);
+                    out.writeShort(move.getKey());
+                    out.writeShort(Math.min(move.getValue(), MAX_WEIGHT));
+                }
+            }
+        }
+    }
+
+    private static int findMove(BitBoard position, String notation, MoveList legalMoves) {
+        position.generateLegalMoves(legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (PackedMove.toString(legalMoves.get(i)).equals(notation)) {
+                return legalMoves.get(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+}
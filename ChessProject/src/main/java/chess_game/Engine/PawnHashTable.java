@@ -0,0 +1,73 @@
+package chess_game.Engine;
+
+/**
+ * Cache of the pawn-structure evaluation, shared by all search threads.
+ *
+ * The pawn terms only depend on where the pawns and kings stand, which changes in
+ * few of the moves searched, so the score is stored under the position's pawn key
+ * and computed again only on a miss. Like the transposition table, the table is
+ * lock-free: each slot stores {@code key ^ data} next to {@code data}, so an entry
+ * torn by two threads writing at once fails the key check and is recomputed.
+ *
+ * Data layout (64 bits): bit 0 marks a used slot, bits 32-63 hold the score.
+ */
+public class PawnHashTable {
+
+    public static final int DEFAULT_SIZE_MB = 1;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * @param sizeMb memory used by the table, rounded down to a power of two number of entries
+     */
+    public PawnHashTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Pawn hash table size must be at least 1 MB");
+        }
+        long entries = (long) sizeMb * 1024 * 1024 / ENTRY_BYTES;
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 28));
+        this.mask = size - 1;
+        this.keys = new long[size];
+        this.data = new long[size];
+    }
+
+    /**
+     * Looks a pawn key up.
+     * @return the entry data, or 0 when the structure is not stored; decode it with {@link #getScore(long)}
+     */
+    public long probe(long pawnKey) {
+        int slot = (int) pawnKey & mask;
+        long entryData = data[slot];
+        if (entryData != 0 && (keys[slot] ^ entryData) == pawnKey) {
+            return entryData;
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores the score of a pawn structure, replacing whatever the slot held.
+     */
+    public void store(long pawnKey, int score) {
+        int slot = (int) pawnKey & mask;
+        long entryData = ((long) score << 32) | 1L;
+        data[slot] = entryData;
+        keys[slot] = pawnKey ^ entryData;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+    }
+
+    public int getSizeInEntries() {
+        return data.length;
+    }
+
+    public static int getScore(long entryData) {
+        return (int) (entryData >> 32);
+    }
+}
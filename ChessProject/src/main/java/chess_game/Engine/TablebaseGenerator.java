@@ -0,0 +1,245 @@
+package chess_game.Engine;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Move.MoveList;
+import chess_game.Move.PackedMove;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Retrograde analysis for the endgame tables of {@link Tablebases}.
+ *
+ * Every position of a table is set up once to generate its legal moves. Moves that stay
+ * in the table are kept as edges and then inverted, so each position knows the positions
+ * that lead to it. Moves that leave the table, a capture or a promotion, are scored from
+ * the table they lead to, which is why KQK and KRK are generated before KPK.
+ *
+ * Results then spread backwards from the checkmates, one distance at a time: a position
+ * with a move to a lost position is won one ply later, and a position whose moves all
+ * lead to won positions is lost one ply after the longest of them. Whatever is never
+ * reached is a draw.
+ */
+public final class TablebaseGenerator {
+
+    // Longest distance to mate a table byte holds, see Tablebases
+    private static final int MAX_DISTANCE = 254;
+    // No exit of that kind
+    private static final int NONE = -1;
+
+    // Finished tables by piece type, for the moves that leave the table being generated
+    private final byte[][] generated = new byte[6][];
+
+    // Per position of the table being generated: moves inside the table not yet known to
+    // lose, the shortest mate through a move out of it, the longest mate the opponent has
+    // after such a move, and whether one of them draws
+    private int[] remaining;
+    private int[] winExit;
+    private int[] lossExit;
+    private boolean[] drawExit;
+
+    /**
+     * Generates every table and writes it into directory.
+     */
+    public static void generateAll(Path directory) throws IOException {
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (int type : Tablebases.TABLE_TYPES) {
+            long start = System.nanoTime();
+            byte[] table = generator.generate(type);
+            Tablebases.write(directory, type, table);
+            int won = 0;
+            int lost = 0;
+            int longest = 0;
+            for (byte value : table) {
+                int distance = (value & 0xFF) - 1;
+                if (distance >= 0) {
+                    if ((distance & 1) == 1) {
+                        won++;
+                    } else {
+                        lost++;
+                    }
+                    longest = Math.max(longest, distance);
+                }
+            }
+            System.out.println(Tablebases.fileName(type) + ": " + won + " won, " + lost + " lost, longest mate "
+                    + longest + " plies, " + (System.nanoTime() - start) / 1000000 + " ms");
+        }
+    }
+
+    /**
+     * Table of the king and a white piece of the given type against the bare black king.
+     * The tables a promotion leads to must have been generated first.
+     */
+    byte[] generate(int type) {
+        remaining = new int[Tablebases.POSITIONS];
+        winExit = new int[Tablebases.POSITIONS];
+        lossExit = new int[Tablebases.POSITIONS];
+        drawExit = new boolean[Tablebases.POSITIONS];
+        Arrays.fill(winExit, NONE);
+        Arrays.fill(lossExit, NONE);
+        IntList[] buckets = new IntList[MAX_DISTANCE + 1];
+        for (int distance = 0; distance <= MAX_DISTANCE; distance++) {
+            buckets[distance] = new IntList();
+        }
+
+        // Forward pass: moves of every position, as edges inside the table or scored exits
+        IntList parents = new IntList();
+        IntList children = new IntList();
+        BitBoard position = new BitBoard();
+        MoveList moves = new MoveList();
+        for (int index = 0; index < Tablebases.POSITIONS; index++) {
+            int sideToMove = index >>> 18;
+            int whiteKing = (index >>> 12) & 63;
+            int blackKing = (index >>> 6) & 63;
+            int sq = index & 63;
+            if (!canPlace(type, whiteKing, blackKing, sq)) {
+                continue;
+            }
+            position.setPiece(whiteKing, BitBoard.WHITE, BitBoard.KING);
+            position.setPiece(blackKing, BitBoard.BLACK, BitBoard.KING);
+            position.setPiece(sq, BitBoard.WHITE, type);
+            position.setSideToMove(sideToMove);
+            // The side that just moved cannot be left in check
+            if (!position.isInCheck(1 - sideToMove)) {
+                position.generateLegalMoves(moves);
+                if (moves.isEmpty() && position.isInCheck(sideToMove)) {
+                    buckets[0].add(index);
+                }
+                for (int i = 0; i < moves.size(); i++) {
+                    int move = moves.get(i);
+                    position.makeMove(move);
+                    int promotion = PackedMove.getPromotion(move);
+                    if (PackedMove.isCapture(move) || promotion == BitBoard.KNIGHT || promotion == BitBoard.BISHOP) {
+                        // Bare kings, or a minor piece that cannot mate
+                        drawExit[index] = true;
+                    } else if (promotion != 0) {
+                        if (generated[promotion] == null) {
+                            throw new IllegalStateException(Tablebases.fileName(promotion) + " must be generated before "
+                                    + Tablebases.fileName(type));
+                        }
+                        addExit(index, generated[promotion][childIndex(position, promotion)] & 0xFF);
+                    } else {
+                        parents.add(index);
+                        children.add(childIndex(position, type));
+                        remaining[index]++;
+                    }
+                    position.unmakeMove();
+                }
+            }
+            position.clearSquare(whiteKing);
+            position.clearSquare(blackKing);
+            position.clearSquare(sq);
+        }
+
+        // Invert the edges: predecessors of position i are at offsets[i] .. offsets[i + 1] - 1
+        int[] offsets = new int[Tablebases.POSITIONS + 1];
+        for (int i = 0; i < children.size; i++) {
+            offsets[children.data[i] + 1]++;
+        }
+        for (int i = 0; i < Tablebases.POSITIONS; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] predecessors = new int[children.size];
+        int[] fill = Arrays.copyOf(offsets, Tablebases.POSITIONS);
+        for (int i = 0; i < children.size; i++) {
+            predecessors[fill[children.data[i]]++] = parents.data[i];
+        }
+
+        // Positions decided by their exits alone
+        for (int index = 0; index < Tablebases.POSITIONS; index++) {
+            if (winExit[index] != NONE) {
+                push(buckets, winExit[index], index);
+            } else if (remaining[index] == 0 && !drawExit[index] && lossExit[index] != NONE) {
+                push(buckets, lossExit[index] + 1, index);
+            }
+        }
+
+        // Backward pass in order of distance, so the first time a position comes up is its
+        // shortest win; a loss is only queued once every move is known to lose
+        byte[] table = new byte[Tablebases.POSITIONS];
+        for (int distance = 0; distance <= MAX_DISTANCE; distance++) {
+            IntList bucket = buckets[distance];
+            for (int i = 0; i < bucket.size; i++) {
+                int index = bucket.data[i];
+                if (table[index] != 0) {
+                    continue;
+                }
+                table[index] = (byte) (distance + 1);
+                boolean lost = (distance & 1) == 0;
+                for (int p = offsets[index]; p < offsets[index + 1]; p++) {
+                    int parent = predecessors[p];
+                    if (table[parent] != 0) {
+                        continue;
+                    }
+                    if (lost) {
+                        push(buckets, distance + 1, parent);
+                    } else if (--remaining[parent] == 0 && !drawExit[parent] && winExit[parent] == NONE) {
+                        push(buckets, Math.max(distance, lossExit[parent]) + 1, parent);
+                    }
+                }
+            }
+        }
+
+        remaining = null;
+        winExit = null;
+        lossExit = null;
+        drawExit = null;
+        generated[type] = table;
+        return table;
+    }
+
+    // Scores a move out of the table by the value of the position it leads to, which is
+    // given for the opponent
+    private void addExit(int index, int value) {
+        if (value == 0) {
+            drawExit[index] = true;
+            return;
+        }
+        int distance = value - 1;
+        if ((distance & 1) == 0) {
+            winExit[index] = winExit[index] == NONE ? distance + 1 : Math.min(winExit[index], distance + 1);
+        } else {
+            lossExit[index] = Math.max(lossExit[index], distance);
+        }
+    }
+
+    private static void push(IntList[] buckets, int distance, int index) {
+        if (distance > MAX_DISTANCE) {
+            throw new IllegalStateException("Distance to mate does not fit the table: " + distance);
+        }
+        buckets[distance].add(index);
+    }
+
+    private static int childIndex(BitBoard position, int type) {
+        return Tablebases.index(position.getSideToMove(), position.getKingSquare(BitBoard.WHITE),
+                position.getKingSquare(BitBoard.BLACK),
+                Long.numberOfTrailingZeros(position.getPieces(BitBoard.WHITE, type)));
+    }
+
+    // Three distinct squares, kings apart, and no pawn on the first or last rank
+    private static boolean canPlace(int type, int whiteKing, int blackKing, int sq) {
+        if (whiteKing == blackKing || sq == whiteKing || sq == blackKing) {
+            return false;
+        }
+        int fileDistance = Math.abs((whiteKing & 7) - (blackKing & 7));
+        int rankDistance = Math.abs((whiteKing >>> 3) - (blackKing >>> 3));
+        if (fileDistance <= 1 && rankDistance <= 1) {
+            return false;
+        }
+        return type != BitBoard.PAWN || ((sq >>> 3) != 0 && (sq >>> 3) != 7);
+    }
+
+    // Growable int array; the edge lists run into the millions
+    private static final class IntList {
+        int[] data = new int[1024];
+        int size = 0;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package chess_game.Engine;
+
+import chess_game.Boards.BitBoard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endgame tables for a king and one piece against a bare king (KQK, KRK and KPK), probed
+ * by the search for the exact distance to mate. The tables are written by
+ * {@link TablebaseGenerator} and memory-mapped, one file per piece type; KBK, KNK and bare
+ * kings are draws without a table.
+ *
+ * File layout (big-endian): the int {@link #MAGIC}, the number of positions as an int,
+ * then one byte per position at {@link #index(int, int, int, int)}. Tables are built with
+ * white holding the piece; a position where black holds it is probed mirrored. A byte of 0
+ * is a draw (or a position that cannot occur), any other value is the number of plies to
+ * mate with best play plus one: odd plies when the side to move mates, even when it is
+ * mated.
+ *
+ * Positions with castling rights are not covered, since the tables do not know them. The
+ * mapping is only read with absolute gets, which is safe from any thread.
+ */
+public final class Tablebases {
+
+    public static final String DEFAULT_DIRECTORY = "tablebases";
+
+    // Results of probe besides a distance to mate
+    public static final int DRAW = -1;
+    public static final int UNKNOWN = -2;
+
+    // Piece types with a table, in the order they are generated: KPK converts to the others
+    public static final int[] TABLE_TYPES = {BitBoard.QUEEN, BitBoard.ROOK, BitBoard.PAWN};
+
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+    private static final int MAGIC = 0x4B544231; // "KTB1"
+    private static final int HEADER_BYTES = 8;
+
+    private static Tablebases defaultTables;
+    private static boolean defaultLoaded = false;
+
+    // By piece type, null where the table is missing
+    private final ByteBuffer[] tables = new ByteBuffer[6];
+
+    private Tablebases() {
+    }
+
+    /**
+     * Maps the tables found in a directory; missing tables are left out.
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        Tablebases tablebases = new Tablebases();
+        for (int type : TABLE_TYPES) {
+            Path file = directory.resolve(fileName(type));
+            if (Files.exists(file)) {
+                tablebases.tables[type] = map(file);
+            }
+        }
+        return tablebases;
+    }
+
+    /**
+     * The tables in {@link #DEFAULT_DIRECTORY} of the working directory, mapped on the first
+     * call and shared from then on.
+     * @return the tables, or null when there are none
+     */
+    public static synchronized Tablebases getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            Path directory = Paths.get(DEFAULT_DIRECTORY);
+            if (Files.isDirectory(directory)) {
+                try {
+                    Tablebases tablebases = open(directory);
+                    if (tablebases.size() > 0) {
+                        defaultTables = tablebases;
+                        System.out.println("Endgame tables loaded: " + tablebases.size());
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error loading endgame tables: " + e.getMessage());
+                }
+            }
+        }
+        return defaultTables;
+    }
+
+    /**
+     * Number of tables loaded.
+     */
+    public int size() {
+        int count = 0;
+        for (ByteBuffer table : tables) {
+            if (table != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Looks the position up.
+     * @return UNKNOWN when no table covers it, DRAW, or the number of plies to mate with best
+     *         play: odd when the side to move mates, even when it is mated (0 when it already is)
+     */
+    public int probe(BitBoard position) {
+        long occupancy = position.getOccupancy();
+        int men = Long.bitCount(occupancy);
+        if (men > 3 || position.getCastlingRights() != 0) {
+            return UNKNOWN;
+        }
+        if (men == 2) {
+            return DRAW;
+        }
+        int sq = Long.numberOfTrailingZeros(occupancy & ~position.getPieces(BitBoard.KING));
+        int type = position.getPieceType(sq);
+        if (type == BitBoard.KNIGHT || type == BitBoard.BISHOP) {
+            return DRAW;
+        }
+        ByteBuffer table = tables[type];
+        if (table == null) {
+            return UNKNOWN;
+        }
+        int color = position.getPieceColor(sq);
+        int strongKing = position.getKingSquare(color);
+        int weakKing = position.getKingSquare(1 - color);
+        int sideToMove = position.getSideToMove() == color ? BitBoard.WHITE : BitBoard.BLACK;
+        if (color == BitBoard.BLACK) {
+            // Mirror the ranks so the piece is white, as in the table
+            strongKing ^= 56;
+            weakKing ^= 56;
+            sq ^= 56;
+        }
+        int value = table.get(HEADER_BYTES + index(sideToMove, strongKing, weakKing, sq)) & 0xFF;
+        return value == 0 ? DRAW : value - 1;
+    }
+
+    /**
+     * Position of a table entry: side to move, then the white king, the black king and the
+     * white piece.
+     */
+    static int index(int sideToMove, int whiteKing, int blackKing, int pieceSquare) {
+        return ((sideToMove * 64 + whiteKing) * 64 + blackKing) * 64 + pieceSquare;
+    }
+
+    static String fileName(int type) {
+        return "K" + "PNBRQK".charAt(type) + "K.tb";
+    }
+
+    /**
+     * Writes a generated table into directory, named after the piece type.
+     */
+    static void write(Path directory, int type, byte[] table) throws IOException {
+        Files.createDirectories(directory);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(table.length);
+        try (OutputStream out = Files.newOutputStream(directory.resolve(fileName(type)))) {
+            out.write(header.array());
+            out.write(table);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + POSITIONS) {
+                throw new IOException("Endgame table has the wrong size: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != POSITIONS) {
+                throw new IOException("Not an endgame table: " + file);
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package chess_game.Engine;
+
+/**
+ * Decides how long the engine may think about one move.
+ *
+ * Without a clock the AI gets a fixed movetime. With the multiplayer clock the
+ * budget is a share of the remaining time, assuming the game still needs a good
+ * number of moves, so the engine never flags and never freezes the board for long.
+ */
+public final class TimeManager {
+
+    public static final long DEFAULT_MOVE_TIME_MS = 2000;
+    public static final long MIN_MOVE_TIME_MS = 100;
+    public static final long MAX_MOVE_TIME_MS = 5000;
+    // Moves the remaining clock time is spread over
+    private static final int MOVES_TO_GO = 30;
+
+    private TimeManager() {
+    }
+
+    /**
+     * Budget for one move with remainingSeconds left on the side's clock.
+     */
+    public static long fromClock(int remainingSeconds) {
+        long budget = remainingSeconds * 1000L / MOVES_TO_GO;
+        return Math.max(MIN_MOVE_TIME_MS, Math.min(MAX_MOVE_TIME_MS, budget));
+    }
+}
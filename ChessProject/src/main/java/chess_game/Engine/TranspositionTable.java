@@ -0,0 +1,144 @@
+package chess_game.Engine;
+
+/**
+ * Fixed-size transposition table shared by all search threads.
+ *
+ * Entries live in two preallocated {@code long[]} arrays, so the table never
+ * allocates or rehashes after construction. Every bucket holds two slots: the
+ * first keeps the deepest result (depth-preferred), the second always takes the
+ * newest one. No locks are used; each slot stores {@code key ^ data} next to
+ * {@code data}, so an entry torn by two threads writing at once fails the key
+ * check on probe and is treated as a miss.
+ *
+ * Data layout (64 bits):
+ * bits 0-19 packed move, 20-27 depth, 28-29 bound, 30-31 age, 32-63 score.
+ */
+public class TranspositionTable {
+
+    public static final int BOUND_NONE = 0;
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int MOVE_MASK = 0xFFFFF;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int age = 0;
+
+    /**
+     * @param sizeMb memory used by the table, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+        }
+        long entries = (long) sizeMb * 1024 * 1024 / ENTRY_BYTES;
+        int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 29));
+        this.bucketMask = buckets - 1;
+        this.keys = new long[buckets * 2];
+        this.data = new long[buckets * 2];
+    }
+
+    /**
+     * Looks a position up.
+     * @return the entry data, or 0 when the position is not stored; decode it with the static getters
+     */
+    public long probe(long key) {
+        int slot = ((int) key & bucketMask) << 1;
+        for (int i = slot; i < slot + 2; i++) {
+            long entryData = data[i];
+            if (entryData != 0 && (keys[i] ^ entryData) == key) {
+                return entryData;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result. A move of 0 keeps the move already stored for the same position.
+     */
+    public void store(long key, int move, int depth, int bound, int score) {
+        int slot = ((int) key & bucketMask) << 1;
+        int currentAge = age;
+
+        long deepData = data[slot];
+        boolean samePosition = deepData != 0 && (keys[slot] ^ deepData) == key;
+        int target;
+        if (samePosition || deepData == 0 || depth >= getDepth(deepData) || getAge(deepData) != currentAge) {
+            target = slot;
+        } else {
+            target = slot + 1;
+        }
+
+        if (move == 0) {
+            long oldData = data[target];
+            if (oldData != 0 && (keys[target] ^ oldData) == key) {
+                move = getMove(oldData);
+            }
+        }
+        long entryData = pack(move, depth, bound, currentAge, score);
+        data[target] = entryData;
+        keys[target] = key ^ entryData;
+    }
+
+    /**
+     * Starts a new search generation so entries from earlier moves get replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 3;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+    }
+
+    public int getSizeInEntries() {
+        return data.length;
+    }
+
+    /**
+     * Permille of sampled slots used by the current search generation.
+     */
+    public int getHashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && getAge(data[i]) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    private static long pack(int move, int depth, int bound, int age, int score) {
+        return (move & MOVE_MASK)
+                | ((long) Math.max(0, Math.min(depth, 255)) << 20)
+                | ((long) bound << 28)
+                | ((long) age << 30)
+                | ((long) score << 32);
+    }
+
+    public static int getMove(long entryData) {
+        return (int) (entryData & MOVE_MASK);
+    }
+
+    public static int getDepth(long entryData) {
+        return (int) (entryData >>> 20) & 0xFF;
+    }
+
+    public static int getBound(long entryData) {
+        return (int) (entryData >>> 28) & 3;
+    }
+
+    public static int getScore(long entryData) {
+        return (int) (entryData >> 32);
+    }
+
+    private static int getAge(long entryData) {
+        return (int) (entryData >>> 30) & 3;
+    }
+}
@@ -0,0 +1,96 @@
+package chess_game.Move;
+
+/**
+ * Reusable buffer of packed moves with a parallel score array for ordering.
+ * The search keeps one list per ply (see {@link #createStack(int)}) and clears
+ * it instead of allocating a new collection at every node.
+ */
+public class MoveList {
+
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private final int[] scores = new int[MAX_MOVES];
+    private int size = 0;
+
+    /**
+     * One list per ply, allocated once per search thread.
+     */
+    public static MoveList[] createStack(int plies) {
+        MoveList[] stack = new MoveList[plies];
+        for (int i = 0; i < plies; i++) {
+            stack[i] = new MoveList();
+        }
+        return stack;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Keeps only the first size moves.
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the best scoring move from index onwards to index (one selection sort step),
+     * so ordering work is only done for moves that are actually searched.
+     */
+    public int pickBest(int index) {
+        int best = index;
+        for (int i = index + 1; i < size; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves[index];
+            moves[index] = moves[best];
+            moves[best] = move;
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves[index];
+    }
+}
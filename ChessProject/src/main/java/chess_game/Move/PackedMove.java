@@ -0,0 +1,156 @@
+package chess_game.Move;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Boards.Board;
+import chess_game.Boards.Tile;
+import chess_game.Pieces.Coordinate;
+import chess_game.Pieces.PieceTypes;
+
+/**
+ * Moves packed into a single int for the search, so generating and storing
+ * moves never allocates. A full {@link Move} is only built at the GUI and
+ * network boundary with {@link #toMove(Board, int)}.
+ *
+ * Layout: bits 0-5 from square, 6-11 to square, 12-14 promotion piece
+ * (BitBoard piece type, 0 when there is none), 15-18 flags.
+ * Squares use BitBoard numbering (a1 = 0, h8 = 63).
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLE = 1 << 17;
+    public static final int DOUBLE_PUSH = 1 << 18;
+
+    private PackedMove() {
+    }
+
+    public static int create(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    public static int create(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | (promotionType << 12) | flags;
+    }
+
+    public static int getFrom(int move) {
+        return move & 63;
+    }
+
+    public static int getTo(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the BitBoard piece type promoted to, or 0 when the move is not a promotion
+     */
+    public static int getPromotion(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static boolean isPromotion(int move) {
+        return getPromotion(move) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * Captures and promotions change material; everything else is a quiet move.
+     */
+    public static boolean isTactical(int move) {
+        return (move & CAPTURE) != 0 || isPromotion(move);
+    }
+
+    /**
+     * Packs a Board move. The flags are taken from the move itself and the board it was made for.
+     */
+    public static int fromMove(Move move) {
+        Coordinate from = move.getCurrentTile().getCoordinate();
+        Coordinate to = move.getDestinationTile().getCoordinate();
+        int flags = 0;
+        if (move.isCastlingMove()) {
+            flags |= CASTLE;
+        } else if (move.isEnPassantMove()) {
+            flags |= EN_PASSANT | CAPTURE;
+        } else if (move.hasKilledPiece()) {
+            flags |= CAPTURE;
+        }
+        if (move.getMovedPiece() != null && move.getMovedPiece().getType() == PieceTypes.PAWN
+                && Math.abs(from.getY() - to.getY()) == 2) {
+            flags |= DOUBLE_PUSH;
+        }
+        int promotion = 0;
+        if (move.isPromotionMove()) {
+            PieceTypes type = move.getPromotionPieceType() != null ? move.getPromotionPieceType() : PieceTypes.QUEEN;
+            promotion = BitBoard.typeOf(type);
+        }
+        return create(BitBoard.square(from.getX(), from.getY()), BitBoard.square(to.getX(), to.getY()), promotion, flags);
+    }
+
+    /**
+     * Builds the full Move for the given board, e.g. to hand a search result to the GUI.
+     */
+    public static Move toMove(Board board, int move) {
+        int from = getFrom(move);
+        int to = getTo(move);
+        Tile fromTile = board.getTile(BitBoard.xOf(from), BitBoard.yOf(from));
+        Tile toTile = board.getTile(BitBoard.xOf(to), BitBoard.yOf(to));
+        if (isCastle(move)) {
+            boolean kingSide = BitBoard.xOf(to) > BitBoard.xOf(from);
+            int y = BitBoard.yOf(from);
+            return new Move(board, fromTile, toTile,
+                    board.getTile(kingSide ? 7 : 0, y), board.getTile(kingSide ? 5 : 3, y));
+        }
+        if (isEnPassant(move)) {
+            return new Move(board, fromTile, toTile, board.getTile(BitBoard.xOf(to), BitBoard.yOf(from)));
+        }
+        Move result = new Move(board, fromTile, toTile);
+        if (isPromotion(move)) {
+            result.setPromotionMove(true);
+            result.setPromotionPieceType(BitBoard.pieceTypeOf(getPromotion(move)));
+        }
+        return result;
+    }
+
+    /**
+     * Same-move test that ignores flags, for matching moves packed in different ways.
+     */
+    public static boolean sameSquares(int a, int b) {
+        return (a & 0x7FFF) == (b & 0x7FFF);
+    }
+
+    /**
+     * Coordinate notation such as "e2e4" or "e7e8q".
+     */
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        StringBuilder builder = new StringBuilder(5);
+        builder.append(squareName(getFrom(move))).append(squareName(getTo(move)));
+        if (isPromotion(move)) {
+            builder.append("pnbrqk".charAt(getPromotion(move)));
+        }
+        return builder.toString();
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >>> 3));
+    }
+}
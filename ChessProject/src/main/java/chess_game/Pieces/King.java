@@ -5,12 +5,11 @@
  */
 package chess_game.Pieces;
 
-
+import chess_game.Boards.Attacks;
+import chess_game.Boards.BitBoard;
 import chess_game.Boards.Board;
 import chess_game.Move.Move;
 import chess_game.Boards.Tile;
-import chess_game.Resources.PIECE_Configurations;
-import chess_game.Utilities.BoardUtilities;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,23 +47,7 @@ public class King extends Piece {
     public List<Move> availableMoves(Board board, Coordinate currentCoord) {
         List<Move> possibleMoves = new ArrayList<Move>();
         Tile currentTile = board.getTile(currentCoord);
-        Tile destinationTile;
-        Coordinate destinationCoordinate;
-        for (Coordinate coord : PIECE_Configurations.QUUEN_MOVES) {
-            destinationCoordinate = currentCoord.plus(coord);
-            if(!BoardUtilities.isValidCoordinate(destinationCoordinate))
-            {
-                continue;
-            }
-            destinationTile = board.getTile(destinationCoordinate);
-            if (!destinationTile.hasPiece()) {
-                possibleMoves.add(new Move(board, currentTile, destinationTile));
-            } else {
-                if (destinationTile.getPiece().getTeam() != this.getTeam()) {
-                    possibleMoves.add(new Move(board, currentTile, destinationTile));
-                }
-            }
-        }
+        addStepMoves(board, currentCoord, Attacks.getKingAttacks(BitBoard.square(currentCoord.getX(), currentCoord.getY())), possibleMoves);
 
         // --- Castling Logic ---
         if (!this.hasMoved() && !chess_game.Utilities.MoveUtilities.controlCheckState(board, this.getTeam())) {
@@ -115,27 +98,13 @@ public class King extends Piece {
         }
         // Check king does not pass through or end up in check
         for (int i = 1; i <= 2; i++) {
-            Coordinate intermediate = new Coordinate(kingX + i * direction, y);
-            Board testBoard = cloneBoardWithKingMove(board, kingCoord, intermediate);
-            if (chess_game.Utilities.MoveUtilities.controlCheckState(testBoard, this.getTeam())) {
+            if (chess_game.Utilities.MoveUtilities.isSquareAttacked(board, kingX + i * direction, y, Team.getOpponent(this.getTeam()))) {
                 return false;
             }
         }
         return true;
     }
 
-    // Helper to clone the board and move the king for check simulation
-    private Board cloneBoardWithKingMove(Board board, Coordinate from, Coordinate to) {
-        // Create a proper deep copy of the board
-        Board boardCopy = board.deepCopy();
-        Tile fromTile = boardCopy.getTile(from);
-        Tile toTile = boardCopy.getTile(to);
-        Piece king = fromTile.getPiece();
-        fromTile.setPiece(null);
-        toTile.setPiece(king);
-        return boardCopy;
-    }
-
     @Override
     public Piece clone() {
         King copy = new King(this.getTeam());
@@ -5,13 +5,12 @@
  */
 package chess_game.Pieces;
 
+import chess_game.Boards.Attacks;
+import chess_game.Boards.BitBoard;
 import chess_game.Move.Move;
 import chess_game.Boards.Board;
-import chess_game.Boards.Tile;
 import java.util.ArrayList;
 import java.util.List;
-import chess_game.Resources.PIECE_Configurations;
-import chess_game.Utilities.BoardUtilities;
 
 /**
  *
@@ -25,26 +24,8 @@ public class Knight extends Piece {
     
     @Override
     public List<Move> availableMoves(Board board, Coordinate currentCoord) {
-
         List<Move> possibleMoves = new ArrayList<Move>();
-
-        Tile destinationTile;
-
-        for (Coordinate coord : PIECE_Configurations.KNIGHT_MOVES) {
- 
-            if (!BoardUtilities.isValidCoordinate(currentCoord.plus(coord))) {
-                continue; // chech if the coord outside of board.
-            }
-            destinationTile = board.getTile(currentCoord.plus(coord));
-
-            if (!destinationTile.hasPiece()) {
-                possibleMoves.add(new Move(board,board.getTile(currentCoord),destinationTile));
-            } else {
-                if (destinationTile.getPiece().getTeam() != this.getTeam()) {
-                    possibleMoves.add(new Move(board,board.getTile(currentCoord),destinationTile));
-                }
-            }
-        }
+        addStepMoves(board, currentCoord, Attacks.getKnightAttacks(BitBoard.square(currentCoord.getX(), currentCoord.getY())), possibleMoves);
         return possibleMoves;
     }
 
@@ -5,13 +5,14 @@
  */
 package chess_game.Pieces;
 
+import chess_game.Boards.Attacks;
+import chess_game.Boards.BitBoard;
 import chess_game.Boards.Board;
 import chess_game.Move.Move;
 import chess_game.Boards.Tile;
 import java.util.ArrayList;
 import java.util.List;
 import chess_game.Resources.PIECE_Configurations;
-import chess_game.Utilities.BoardUtilities;
 
 /**
  *
@@ -29,75 +30,42 @@ public class Pawn extends Piece {
         Tile currentTile = board.getTile(currentCoord);
         Tile destinationTile;
 
-        // We'll check for promotion when creating moves below
+        int x = currentCoord.getX();
+        int y = currentCoord.getY();
+        int direction = (this.getTeam() == Team.WHITE) ? -1 : 1;
+        int promotionY = (this.getTeam() == Team.WHITE) ? 0 : 7;
 
         //normal available moves calculating. Movement of 1 length on y or -y axis.
-        for (Coordinate coord : (Coordinate[]) PIECE_Configurations.PAWN_MOVES.get(this.getTeam()).get("Normal")) {
-            if (!BoardUtilities.isValidCoordinate(currentCoord.plus(coord))) {
-                continue;
-            }
-            destinationTile = board.getTile(currentCoord.plus(coord));
+        int forwardY = y + direction;
+        if (forwardY >= 0 && forwardY <= 7) {
+            destinationTile = board.getTile(x, forwardY);
+            //not need to else state. becuse if there is a piece in any team on pawn it cant moves.
             if (!destinationTile.hasPiece()) {
-                Move move = new Move(board, currentTile, destinationTile);
-                // Check if this move reaches the promotion rank
-                boolean isPromotionRank = (this.getTeam() == Team.WHITE && destinationTile.getCoordinate().getY() == 0) ||
-                                         (this.getTeam() == Team.BLACK && destinationTile.getCoordinate().getY() == 7);
-                if (isPromotionRank) {
-                    move.setPromotionMove(true);
-                    move.setPromotionPieceType(PieceTypes.QUEEN); // Default to queen, can be changed by player
-                }
-                possibleMoves.add(move);
-            }
-            //not need to else state. becuse if there is a piece in any team on pawn it cant moves.             
-        }
-        // Two-square initial move (only if pawn is in starting position)
-        if (currentTile.getCoordinate().getY() == PIECE_Configurations.getPawnStartPosY(this.getTeam())) {
-            for (Coordinate coord : (Coordinate[]) PIECE_Configurations.PAWN_MOVES.get(this.getTeam()).get("Start")) {
-                if (!BoardUtilities.isValidCoordinate(currentCoord.plus(coord))) {
-                    continue;
-                }
-                destinationTile = board.getTile(currentCoord.plus(coord));
-                
-                // CRITICAL FIX: Check that BOTH the first square AND the destination square are empty
-                // A pawn cannot jump over pieces, even on its initial two-square move
-                Coordinate oneSquareForward = new Coordinate(0, this.getTeam() == Team.WHITE ? -1 : 1);
-                Tile firstSquareTile = board.getTile(currentCoord.plus(oneSquareForward));
-                
-                // Only allow two-square move if BOTH squares are empty
-                if (!firstSquareTile.hasPiece() && !destinationTile.hasPiece()) {
-                    possibleMoves.add(new Move(board, currentTile, destinationTile));
+                possibleMoves.add(createMove(board, currentTile, destinationTile, promotionY));
+
+                // Two-square initial move (only if pawn is in starting position)
+                // A pawn cannot jump over pieces, so the first square must be empty as well
+                if (y == PIECE_Configurations.getPawnStartPosY(this.getTeam())) {
+                    Tile twoSquaresTile = board.getTile(x, y + 2 * direction);
+                    if (!twoSquaresTile.hasPiece()) {
+                        possibleMoves.add(new Move(board, currentTile, twoSquaresTile));
+                    }
                 }
             }
         }
-        for (Coordinate coord : (Coordinate[]) PIECE_Configurations.PAWN_MOVES.get(this.getTeam()).get("Attack")) {
 
-            if (!BoardUtilities.isValidCoordinate(currentCoord.plus(coord))) {
-                continue;
-            }
-            destinationTile = board.getTile(currentCoord.plus(coord));
-
-            if (!destinationTile.hasPiece()) {
-                continue;
-            } else {
-                if (destinationTile.getPiece().getTeam() != this.getTeam()) {
-                    Move move = new Move(board, currentTile, destinationTile);
-                    // Check if this attack move reaches the promotion rank
-                    boolean isAttackPromotionRank = (this.getTeam() == Team.WHITE && destinationTile.getCoordinate().getY() == 0) ||
-                                                   (this.getTeam() == Team.BLACK && destinationTile.getCoordinate().getY() == 7);
-                    if (isAttackPromotionRank) {
-                        move.setPromotionMove(true);
-                        move.setPromotionPieceType(PieceTypes.QUEEN); // Default to queen, can be changed by player
-                    }
-                    possibleMoves.add(move);
-                }
+        // Captures, from the precomputed pawn attack table
+        long attacks = Attacks.getPawnAttacks(BitBoard.colorOf(this.getTeam()), BitBoard.square(x, y));
+        while (attacks != 0) {
+            int sq = Long.numberOfTrailingZeros(attacks);
+            attacks &= attacks - 1;
+            destinationTile = board.getTile(BitBoard.xOf(sq), BitBoard.yOf(sq));
+            if (destinationTile.hasPiece() && destinationTile.getPiece().getTeam() != this.getTeam()) {
+                possibleMoves.add(createMove(board, currentTile, destinationTile, promotionY));
             }
         }
 
         // En passant
-        Board b = board;
-        int direction = (this.getTeam() == Team.WHITE) ? -1 : 1;
-        int y = currentCoord.getY();
-        int x = currentCoord.getX();
         // Check left and right for en passant
         for (int dx = -1; dx <= 1; dx += 2) {
             int nx = x + dx;
@@ -107,7 +75,10 @@ public class Pawn extends Piece {
             if (adjacentTile.hasPiece() && adjacentTile.getPiece().getType() == PieceTypes.PAWN && adjacentTile.getPiece().getTeam() != this.getTeam()) {
                 // Check if this pawn just moved two squares
                 Move lastMove = board.getLastMove();
-                if (lastMove != null && lastMove.getMovedPiece() == adjacentTile.getPiece() && Math.abs(lastMove.getCurrentTile().getCoordinate().getY() - lastMove.getDestinationTile().getCoordinate().getY()) == 2) {
+                // Compared by coordinate so it also works when the last move was made on a copy of this board
+                if (lastMove != null && lastMove.getMovedPiece() != null && lastMove.getMovedPiece().getType() == PieceTypes.PAWN
+                        && lastMove.getDestinationTile().getCoordinate().equals(adjacentTile.getCoordinate())
+                        && Math.abs(lastMove.getCurrentTile().getCoordinate().getY() - lastMove.getDestinationTile().getCoordinate().getY()) == 2) {
                     // The en passant target square is behind the enemy pawn
                     int targetY = y + direction;
                     if (targetY >= 0 && targetY <= 7 && !board.getTile(nx, targetY).hasPiece()) {
@@ -121,6 +92,16 @@ public class Pawn extends Piece {
         return possibleMoves;
     }
 
+    // Moves that reach the last rank promote, to a queen by default; the player can change the piece
+    private Move createMove(Board board, Tile currentTile, Tile destinationTile, int promotionY) {
+        Move move = new Move(board, currentTile, destinationTile);
+        if (destinationTile.getCoordinate().getY() == promotionY) {
+            move.setPromotionMove(true);
+            move.setPromotionPieceType(PieceTypes.QUEEN);
+        }
+        return move;
+    }
+
     @Override
     public Piece clone() {
         Pawn copy = new Pawn(this.getTeam());
@@ -6,7 +6,10 @@
 package chess_game.Pieces;
 
 import chess_game.Move.Move;
+import chess_game.Boards.Attacks;
+import chess_game.Boards.BitBoard;
 import chess_game.Boards.Board;
+import chess_game.Boards.Tile;
 import java.util.List;
 
 /**
@@ -60,6 +63,38 @@ public abstract class Piece implements java.io.Serializable, Cloneable{
     // This function calculates available moves of the piece on a given board and coordinate.
     public abstract List<Move> availableMoves(Board board, Coordinate currentCoord);
 
+    // Adds a move to every target square (from the precomputed attack tables) that is empty or holds an enemy piece.
+    protected void addStepMoves(Board board, Coordinate currentCoord, long targets, List<Move> possibleMoves) {
+        Tile currentTile = board.getTile(currentCoord);
+        while (targets != 0) {
+            int sq = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            Tile destinationTile = board.getTile(BitBoard.xOf(sq), BitBoard.yOf(sq));
+            if (!destinationTile.hasPiece() || destinationTile.getPiece().getTeam() != this.getTeam()) {
+                possibleMoves.add(new Move(board, currentTile, destinationTile));
+            }
+        }
+    }
+
+    // Adds moves along the precomputed rays of the given directions until a piece blocks; an enemy blocker can be taken.
+    protected void addSlidingMoves(Board board, Coordinate currentCoord, int[] directions, List<Move> possibleMoves) {
+        Tile currentTile = board.getTile(currentCoord);
+        int from = BitBoard.square(currentCoord.getX(), currentCoord.getY());
+        for (int direction : directions) {
+            for (int sq : Attacks.getRay(from, direction)) {
+                Tile destinationTile = board.getTile(BitBoard.xOf(sq), BitBoard.yOf(sq));
+                if (!destinationTile.hasPiece()) {
+                    possibleMoves.add(new Move(board, currentTile, destinationTile));
+                } else {
+                    if (destinationTile.getPiece().getTeam() != this.getTeam()) {
+                        possibleMoves.add(new Move(board, currentTile, destinationTile));
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
     @Override
     public abstract Piece clone();
 
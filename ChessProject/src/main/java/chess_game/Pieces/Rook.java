@@ -5,11 +5,9 @@
  */
 package chess_game.Pieces;
 
+import chess_game.Boards.Attacks;
 import chess_game.Boards.Board;
 import chess_game.Move.Move;
-import chess_game.Boards.Tile;
-import chess_game.Resources.PIECE_Configurations;
-import chess_game.Utilities.BoardUtilities;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,28 +26,9 @@ public class Rook extends Piece{
     }
     
     @Override
-    public List<Move> availableMoves(Board board,Coordinate currentCoord) {
-         List<Move> possibleMoves = new ArrayList<Move>();
-        Tile currentTile = board.getTile(currentCoord);
-        Tile destinationTile;
-        Coordinate destinationCoordinate;
-        for (Coordinate coord : PIECE_Configurations.ROOK_MOVES) {
-            destinationCoordinate = currentCoord;
-            while (BoardUtilities.isValidCoordinate(destinationCoordinate.plus(coord))) {
-                destinationCoordinate = destinationCoordinate.plus(coord);
-                destinationTile = board.getTile(destinationCoordinate);
-                if (!destinationTile.hasPiece()) {
-                    possibleMoves.add(new Move(board, currentTile, destinationTile));
-                } else {
-                    if (destinationTile.getPiece().getTeam() != this.getTeam()) {
-                        possibleMoves.add(new Move(board, currentTile, destinationTile));
-                        break;
-                    } else {
-                        break;
-                    }
-                }
-            }
-        }
+    public List<Move> availableMoves(Board board, Coordinate currentCoord) {
+        List<Move> possibleMoves = new ArrayList<Move>();
+        addSlidingMoves(board, currentCoord, Attacks.ROOK_DIRECTIONS, possibleMoves);
         return possibleMoves;
     }
 
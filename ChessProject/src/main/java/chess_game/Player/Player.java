@@ -36,61 +36,8 @@ public class Player implements java.io.Serializable{
     
     public void makeMove(Board board, Move move)
     {
-        if (move.isCastlingMove()) {
-            // Move the king
-            board.getTile(move.getDestinationTile().getCoordinate()).setPiece(move.getCurrentTile().getPiece());
-            board.getTile(move.getCurrentTile().getCoordinate()).setPiece(null);
-            // Move the rook
-            board.getTile(move.getRookEndTile().getCoordinate()).setPiece(move.getRookStartTile().getPiece());
-            board.getTile(move.getRookStartTile().getCoordinate()).setPiece(null);
-            // Set hasMoved for king and rook
-            Piece king = board.getTile(move.getDestinationTile().getCoordinate()).getPiece();
-            Piece rook = board.getTile(move.getRookEndTile().getCoordinate()).getPiece();
-            if (king instanceof King) {
-                ((King) king).setHasMoved(true);
-            }
-            if (rook instanceof Rook) {
-                ((Rook) rook).setHasMoved(true);
-            }
-        } else if (move.isEnPassantMove()) {
-            // Move the pawn
-            board.getTile(move.getDestinationTile().getCoordinate()).setPiece(move.getCurrentTile().getPiece());
-            board.getTile(move.getCurrentTile().getCoordinate()).setPiece(null);
-            // Remove the captured pawn
-            board.getTile(move.getEnPassantCapturedTile().getCoordinate()).setPiece(null);
-        } else if (move.isPromotionMove()) {
-            // Handle pawn promotion
-            Piece promotionPiece = createPromotionPiece(move.getPromotionPieceType(), move.getMovedPiece().getTeam());
-            board.getTile(move.getDestinationTile().getCoordinate()).setPiece(promotionPiece);
-            board.getTile(move.getCurrentTile().getCoordinate()).setPiece(null);
-        } else {
-            board.getTile(move.getDestinationTile().getCoordinate()).setPiece(move.getCurrentTile().getPiece());
-            board.getTile(move.getCurrentTile().getCoordinate()).setPiece(null);
-            // Set hasMoved for king or rook
-            Piece moved = board.getTile(move.getDestinationTile().getCoordinate()).getPiece();
-            if (moved instanceof King) {
-                ((King) moved).setHasMoved(true);
-            }
-            if (moved instanceof Rook) {
-                ((Rook) moved).setHasMoved(true);
-            }
-        }
-        // Track last move for en passant
-        board.setLastMove(move);
-    }
-    
-    private Piece createPromotionPiece(PieceTypes pieceType, Team team) {
-        switch (pieceType) {
-            case QUEEN:
-                return new Queen(team);
-            case ROOK:
-                return new Rook(team);
-            case BISHOP:
-                return new Bishop(team);
-            case KNIGHT:
-                return new Knight(team);
-            default:
-                return new Queen(team); // Default to queen
-        }
+        // The board resolves the move by coordinates, updates hasMoved flags and tracks the last move for en passant.
+        // A played move is never taken back, so it is committed without an undo record.
+        board.commitMove(move);
     }
 }
@@ -33,7 +33,11 @@ public class ReinforcementLearner {
 
     public ReinforcementLearner() {
         this.gameQueue = new LinkedList<>();
-        this.executor = Executors.newFixedThreadPool(4);
+        this.executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "chess-ai-learner");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.qValues = new HashMap<>();
         this.moveFrequency = new HashMap<>();
         this.tacticalPatterns = new HashMap<>();
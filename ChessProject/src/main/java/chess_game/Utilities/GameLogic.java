@@ -10,7 +10,7 @@ import chess_game.Pieces.Team;
 import chess_game.gui.BoardPanel;
 import chess_game.gui.InGameBottomMenu;
 import chess_game.gui.Table;
-import chess_game.ChessAI;
+import chess_game.Engine.EngineService;
 import Messages.Message;
 
 import javax.swing.JOptionPane;
@@ -228,8 +228,7 @@ public class GameLogic {
         SwingWorker<Move, Void> aiWorker = new SwingWorker<Move, Void>() {
             @Override
             protected Move doInBackground() throws Exception {
-                ChessAI ai = new ChessAI(3); // Configurable depth
-                return ai.getBestMove(board, aiTeam);
+                return EngineService.getInstance().getBestMove(board, aiTeam);
             }
             
             @Override
@@ -5,13 +5,17 @@
  */
 package chess_game.Utilities;
 
+import chess_game.Boards.Attacks;
+import chess_game.Boards.BitBoard;
 import chess_game.Boards.Board;
 import chess_game.Boards.Tile;
 import chess_game.Pieces.Coordinate;
+import chess_game.Pieces.Piece;
 import chess_game.Move.Move;
+import chess_game.Move.MoveList;
+import chess_game.Move.PackedMove;
 import chess_game.Pieces.PieceTypes;
 import chess_game.Pieces.Team;
-import chess_game.Resources.PIECE_Configurations;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,47 +25,55 @@ import java.util.List;
  */
 public class MoveUtilities {
 
+    // Reused for every call on the same thread (GUI, AI workers), so no move buffer is allocated
+    private static final ThreadLocal<MoveList> MOVE_BUFFER = ThreadLocal.withInitial(MoveList::new);
+
+    /**
+     * Legal moves of the given team, as if it were that team's turn. Moves come from the
+     * pin and check aware BitBoard generator, so no candidate move has to be played and
+     * tested. Promotions are returned once, to a queen, like the pieces generate them.
+     */
     public static List<Move> getLegalMoves(Board board, Team team) {
-        List<Move> legalMoves = new ArrayList<>();
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                Tile tile = board.getTile(i, j);
-                if (tile.hasPiece() && tile.getPiece().getTeam() == team) {
-                    for (Move move : tile.getPiece().availableMoves(board, tile.getCoordinate())) {
-                        Board boardCopy = board.deepCopy();
-                        Tile fromTile = boardCopy.getTile(tile.getCoordinate());
-                        Tile toTile = boardCopy.getTile(move.getDestinationTile().getCoordinate());
-                        
-                        // Create the appropriate move type for simulation
-                        Move simulationMove;
-                        if (move.isCastlingMove()) {
-                            Tile rookStartTile = boardCopy.getTile(move.getRookStartTile().getCoordinate());
-                            Tile rookEndTile = boardCopy.getTile(move.getRookEndTile().getCoordinate());
-                            simulationMove = new Move(boardCopy, fromTile, toTile, rookStartTile, rookEndTile);
-                        } else if (move.isEnPassantMove()) {
-                            Tile enPassantCapturedTile = boardCopy.getTile(move.getEnPassantCapturedTile().getCoordinate());
-                            simulationMove = new Move(boardCopy, fromTile, toTile, enPassantCapturedTile);
-                        } else if (move.isPromotionMove()) {
-                            simulationMove = new Move(boardCopy, fromTile, toTile);
-                            simulationMove.setPromotionMove(true);
-                            simulationMove.setPromotionPieceType(move.getPromotionPieceType());
-                        } else {
-                            simulationMove = new Move(boardCopy, fromTile, toTile);
-                        }
-                        
-                        // Simulate the move
-                        boardCopy.getCurrentPlayer().makeMove(boardCopy, simulationMove);
-                        // If king is not in check after the move, it's legal
-                        if (!controlCheckState(boardCopy, team)) {
-                            legalMoves.add(move);
-                        }
-                    }
-                }
+        MoveList moves = MOVE_BUFFER.get();
+        BitBoard.fromBoard(board, team).generateLegalMoves(moves);
+        List<Move> legalMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.isPromotion(move) && PackedMove.getPromotion(move) != BitBoard.QUEEN) {
+                continue;
             }
+            legalMoves.add(PackedMove.toMove(board, move));
         }
         return legalMoves;
     }
 
+    /**
+     * Rebuilds a move on another board with the same coordinates, e.g. to hand a move
+     * found on a search copy back to the game board.
+     * @param move The move to translate
+     * @param board The board the new move should refer to
+     * @return An equivalent move whose tiles and pieces belong to the given board
+     */
+    public static Move translateMove(Move move, Board board) {
+        Tile fromTile = board.getTile(move.getCurrentTile().getCoordinate());
+        Tile toTile = board.getTile(move.getDestinationTile().getCoordinate());
+        Move translated;
+        if (move.isCastlingMove()) {
+            translated = new Move(board, fromTile, toTile,
+                    board.getTile(move.getRookStartTile().getCoordinate()),
+                    board.getTile(move.getRookEndTile().getCoordinate()));
+        } else if (move.isEnPassantMove()) {
+            translated = new Move(board, fromTile, toTile, board.getTile(move.getEnPassantCapturedTile().getCoordinate()));
+        } else {
+            translated = new Move(board, fromTile, toTile);
+        }
+        if (move.isPromotionMove()) {
+            translated.setPromotionMove(true);
+            translated.setPromotionPieceType(move.getPromotionPieceType());
+        }
+        return translated;
+    }
+
     public static boolean isValidMove(Board board, Tile destinationTile) {
         if (!board.hasChosenTile()) {
             return false;
@@ -78,91 +90,56 @@ public class MoveUtilities {
     }
 
     public static boolean controlCheckState(Board board, Team team) {
-
-        Tile destinationTile;
-        Coordinate currentCoord = board.getCoordOfGivenTeamPiece(team, PieceTypes.KING);
+        Coordinate kingCoord = board.getCoordOfGivenTeamPiece(team, PieceTypes.KING);
         
         // Check if king exists (should always exist in a valid game)
-        if (currentCoord == null) {
+        if (kingCoord == null) {
             return false; // No king found, can't be in check
         }
-        
-        //control is there a knight as a danger for king ( check state),
-        for (Coordinate coord : PIECE_Configurations.KNIGHT_MOVES) {
-
-            if (!BoardUtilities.isValidCoordinate(currentCoord.plus(coord))) {
-                continue; // chech if the coord outside of board.
-            }
-            destinationTile = board.getTile(currentCoord.plus(coord));
+        return isSquareAttacked(board, kingCoord.getX(), kingCoord.getY(), Team.getOpponent(team));
+    }
 
-            if (!destinationTile.hasPiece()) {
-                continue;
-            } else {
-                if (destinationTile.getPiece().getTeam() != team && destinationTile.getPiece().getType() == PieceTypes.KNIGHT) {
-                    return true;
-                }
-            }
+    /**
+     * Square-attacked query for a Board, shared by the check test, the pieces and the AI.
+     * Leapers are looked up in the precomputed attack tables and sliders walk the precomputed
+     * rays, so no Coordinate is created.
+     * @param board The board to test
+     * @param x File of the square
+     * @param y Row of the square (0 is black's back rank)
+     * @param byTeam The attacking team
+     * @return true if any piece of byTeam attacks the square
+     */
+    public static boolean isSquareAttacked(Board board, int x, int y, Team byTeam) {
+        int sq = BitBoard.square(x, y);
+        // The byTeam pawns that attack sq stand where a pawn of the other colour on sq would attack
+        if (hasPieceOn(board, Attacks.getPawnAttacks(1 - BitBoard.colorOf(byTeam), sq), byTeam, PieceTypes.PAWN)
+                || hasPieceOn(board, Attacks.getKnightAttacks(sq), byTeam, PieceTypes.KNIGHT)
+                || hasPieceOn(board, Attacks.getKingAttacks(sq), byTeam, PieceTypes.KING)) {
+            return true;
         }
-        
-        //control is there a rooks, queen etc. (check danger from straight way)
-        
-        Tile currentTile = board.getTile(currentCoord);
-        Coordinate destinationCoordinate;
-        for (Coordinate coord : PIECE_Configurations.ROOK_MOVES) {
-            destinationCoordinate = currentCoord;
-            while (BoardUtilities.isValidCoordinate(destinationCoordinate.plus(coord))) {
-                destinationCoordinate = destinationCoordinate.plus(coord);
-                destinationTile = board.getTile(destinationCoordinate);
-                if (!destinationTile.hasPiece()) {
+        for (int direction : Attacks.QUEEN_DIRECTIONS) {
+            PieceTypes slider = Attacks.isStraight(direction) ? PieceTypes.ROOK : PieceTypes.BISHOP;
+            for (int target : Attacks.getRay(sq, direction)) {
+                Piece piece = board.getTile(BitBoard.xOf(target), BitBoard.yOf(target)).getPiece();
+                if (piece == null) {
                     continue;
-                } else {
-                    if (destinationTile.getPiece().getTeam() == team) {
-                        break;
-                    }
-                    if (destinationTile.getPiece().getTeam() != team && (destinationTile.getPiece().getType() == PieceTypes.ROOK || destinationTile.getPiece().getType() == PieceTypes.QUEEN)) {
-                        return true;
-                    } else {
-                        break;
-                    }
                 }
-            }
-        }
-        //control is there a bishop, queen ( check danger from cross way)
-        for (Coordinate coord : PIECE_Configurations.BISHOP_MOVES) {
-            destinationCoordinate = currentCoord;
-            while (BoardUtilities.isValidCoordinate(destinationCoordinate.plus(coord))) {
-                destinationCoordinate = destinationCoordinate.plus(coord);
-                destinationTile = board.getTile(destinationCoordinate);
-                if (!destinationTile.hasPiece()) {
-                    continue;
-                } else {
-                    if (destinationTile.getPiece().getTeam() == team) {
-                        break;
-                    }
-                    if (destinationTile.getPiece().getTeam() != team && (destinationTile.getPiece().getType() == PieceTypes.BISHOP || destinationTile.getPiece().getType() == PieceTypes.QUEEN)) {
-                        return true;
-
-                    } else {
-                        break;
-                    }
+                if (piece.getTeam() == byTeam && (piece.getType() == slider || piece.getType() == PieceTypes.QUEEN)) {
+                    return true;
                 }
+                break;
             }
         }
-        
-        // control is there a pawn that able to attack king nearby. 
-        for (Coordinate coord : (Coordinate[]) PIECE_Configurations.PAWN_MOVES.get(team).get("Attack")) {
-
-            if (!BoardUtilities.isValidCoordinate(currentCoord.plus(coord))) {
-                continue;
-            }
-            destinationTile = board.getTile(currentCoord.plus(coord));
+        return false;
+    }
 
-            if (!destinationTile.hasPiece()) {
-                continue;
-            } else {
-                if (destinationTile.getPiece().getTeam() != team && destinationTile.getPiece().getType() == PieceTypes.PAWN) {
-                    return true;
-                }
+    private static boolean hasPieceOn(Board board, long squares, Team team, PieceTypes type) {
+        while (squares != 0) {
+            int sq = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            Piece piece = board.getTile(BitBoard.xOf(sq), BitBoard.yOf(sq)).getPiece();
+            if (piece != null && piece.getTeam() == team && piece.getType() == type) {
+                return true;
             }
         }
         return false;
@@ -175,14 +152,7 @@ public class MoveUtilities {
      * @return true if the team is in checkmate, false otherwise
      */
     public static boolean isCheckmate(Board board, Team team) {
-        // First check if the king is in check
-        if (!controlCheckState(board, team)) {
-            return false; // Not in check, so not checkmate
-        }
-        
-        // Then check if there are any legal moves to get out of check
-        List<Move> legalMoves = getLegalMoves(board, team);
-        return legalMoves.isEmpty();
+        return "CHECKMATE".equals(getGameState(board, team));
     }
 
     /**
@@ -192,29 +162,24 @@ public class MoveUtilities {
      * @return true if the team is in stalemate, false otherwise
      */
     public static boolean isStalemate(Board board, Team team) {
-        // First check if the king is in check
-        if (controlCheckState(board, team)) {
-            return false; // In check, so not stalemate (would be checkmate if no moves)
-        }
-        
-        // Then check if there are any legal moves
-        List<Move> legalMoves = getLegalMoves(board, team);
-        return legalMoves.isEmpty();
+        return "STALEMATE".equals(getGameState(board, team));
     }
 
     /**
-     * Check if the game is over (checkmate or stalemate)
+     * Check if the game is over (checkmate or stalemate). The position is converted and its
+     * moves generated once; the check test is only needed when there is no legal move.
      * @param board The current board state
      * @param team The team to check
      * @return "CHECKMATE" if checkmate, "STALEMATE" if stalemate, null if game continues
      */
     public static String getGameState(Board board, Team team) {
-        if (isCheckmate(board, team)) {
-            return "CHECKMATE";
-        } else if (isStalemate(board, team)) {
-            return "STALEMATE";
+        BitBoard position = BitBoard.fromBoard(board, team);
+        MoveList moves = MOVE_BUFFER.get();
+        position.generateLegalMoves(moves);
+        if (!moves.isEmpty()) {
+            return null; // Game continues
         }
-        return null; // Game continues
+        return position.isInCheck(BitBoard.colorOf(team)) ? "CHECKMATE" : "STALEMATE";
     }
 
 }
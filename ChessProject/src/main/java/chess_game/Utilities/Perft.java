@@ -0,0 +1,152 @@
+package chess_game.Utilities;
+
+import chess_game.Boards.BitBoard;
+import chess_game.Boards.Board;
+import chess_game.Move.Move;
+import chess_game.Move.MoveList;
+import chess_game.Move.PackedMove;
+import chess_game.Pieces.PieceTypes;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth. The
+ * counts for well known positions are published, so any difference points to a
+ * move generation bug (castling, en passant, promotion, pins...). The node rate
+ * doubles as a move generator benchmark.
+ *
+ * Two paths are counted: the Board path (MoveUtilities.getLegalMoves and
+ * Player.makeMove, as the GUI plays) and the BitBoard path used by the search.
+ *
+ * Usage: java chess_game.Utilities.Perft [--board] [--divide] depth [fen]
+ */
+public class Perft {
+
+    // The Board generator only creates queen promotions; perft counts all four pieces
+    private static final PieceTypes[] PROMOTION_PIECES = {PieceTypes.QUEEN, PieceTypes.ROOK, PieceTypes.BISHOP, PieceTypes.KNIGHT};
+
+    public static long perft(Board board, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (Move move : MoveUtilities.getLegalMoves(board, board.getCurrentPlayer().getTeam())) {
+            if (move.isPromotionMove()) {
+                for (PieceTypes piece : PROMOTION_PIECES) {
+                    move.setPromotionPieceType(piece);
+                    nodes += countAfterMove(board, move, depth);
+                }
+            } else {
+                nodes += countAfterMove(board, move, depth);
+            }
+        }
+        return nodes;
+    }
+
+    private static long countAfterMove(Board board, Move move, int depth) {
+        if (depth == 1) {
+            return 1;
+        }
+        board.makeMove(move);
+        board.changeCurrentPlayer();
+        long nodes = perft(board, depth - 1);
+        board.changeCurrentPlayer();
+        board.unmakeMove();
+        return nodes;
+    }
+
+    public static long perft(BitBoard position, int depth) {
+        return perft(position, depth, 0, MoveList.createStack(depth + 1));
+    }
+
+    private static long perft(BitBoard position, int depth, int ply, MoveList[] moveStack) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveStack[ply];
+        position.generateLegalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            nodes += perft(position, depth - 1, ply + 1, moveStack);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Prints the node count below every root move, which narrows a wrong total down to one move.
+     */
+    public static long divide(Board board, int depth) {
+        long total = 0;
+        for (Move move : MoveUtilities.getLegalMoves(board, board.getCurrentPlayer().getTeam())) {
+            PieceTypes[] pieces = move.isPromotionMove() ? PROMOTION_PIECES : new PieceTypes[]{null};
+            for (PieceTypes piece : pieces) {
+                if (piece != null) {
+                    move.setPromotionPieceType(piece);
+                }
+                long nodes = countAfterMove(board, move, depth);
+                System.out.println(PackedMove.toString(PackedMove.fromMove(move)) + ": " + nodes);
+                total += nodes;
+            }
+        }
+        System.out.println("Total: " + total);
+        return total;
+    }
+
+    public static long divide(BitBoard position, int depth) {
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            long nodes = depth <= 1 ? 1 : perft(position, depth - 1);
+            position.unmakeMove();
+            System.out.println(PackedMove.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println("Total: " + total);
+        return total;
+    }
+
+    public static void main(String[] args) {
+        boolean boardPath = false;
+        boolean divide = false;
+        int depth = -1;
+        StringBuilder fen = new StringBuilder();
+        for (String arg : args) {
+            if (arg.equals("--board")) {
+                boardPath = true;
+            } else if (arg.equals("--divide")) {
+                divide = true;
+            } else if (depth < 0) {
+                depth = Integer.parseInt(arg);
+            } else {
+                fen.append(arg).append(' ');
+            }
+        }
+        if (depth < 0) {
+            System.out.println("Usage: java chess_game.Utilities.Perft [--board] [--divide] depth [fen]");
+            return;
+        }
+        BitBoard position = BitBoard.fromFen(fen.length() > 0 ? fen.toString() : BitBoard.START_FEN);
+
+        long start = System.nanoTime();
+        long nodes;
+        if (boardPath) {
+            Board board = position.toBoard();
+            nodes = divide ? divide(board, depth) : perft(board, depth);
+        } else {
+            nodes = divide ? divide(position, depth) : perft(position, depth);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("Perft(%d) = %d in %d ms (%,d nodes/s, %s)", depth, nodes,
+                elapsed / 1000000, nodesPerSecond(nodes, elapsed), boardPath ? "Board" : "BitBoard"));
+    }
+
+    public static long nodesPerSecond(long nodes, long elapsedNanos) {
+        return elapsedNanos > 0 ? nodes * 1000000000L / elapsedNanos : 0;
+    }
+}
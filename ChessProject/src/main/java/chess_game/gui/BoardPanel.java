@@ -273,41 +273,16 @@ public class BoardPanel extends JPanel {
             return true;
         }
         
-        // Create a temporary board to simulate the move
-        Board tempBoard = board.deepCopy();
-        
-        // Execute the move on the temporary board
+        // Simulate the move in place; it is taken back before returning
+        Team movingTeam = board.getTile(move.getCurrentTile().getCoordinate()).getPiece().getTeam();
+        board.makeMove(move);
         try {
-            // Create a proper move for the temporary board
-            Move tempMove;
-            if (move.isEnPassantMove()) {
-                tempMove = new Move(tempBoard, 
-                    tempBoard.getTile(move.getCurrentTile().getCoordinate()),
-                    tempBoard.getTile(move.getDestinationTile().getCoordinate()),
-                    tempBoard.getTile(move.getEnPassantCapturedTile().getCoordinate()));
-            } else if (move.isPromotionMove()) {
-                tempMove = new Move(tempBoard, 
-                    tempBoard.getTile(move.getCurrentTile().getCoordinate()),
-                    tempBoard.getTile(move.getDestinationTile().getCoordinate()));
-                tempMove.setPromotionMove(true);
-                tempMove.setPromotionPieceType(move.getPromotionPieceType());
-            } else {
-                tempMove = new Move(tempBoard, 
-                    tempBoard.getTile(move.getCurrentTile().getCoordinate()),
-                    tempBoard.getTile(move.getDestinationTile().getCoordinate()));
-            }
-            
-            tempBoard.getCurrentPlayer().makeMove(tempBoard, tempMove);
-            
-            // Switch to the opponent's turn
-            tempBoard.changeCurrentPlayer();
-            
             // Get the destination coordinate where our piece now sits
             Coordinate destCoord = move.getDestinationTile().getCoordinate();
             
             // Check if any opponent piece can attack this square
-            Team opponentTeam = tempBoard.getCurrentPlayer().getTeam();
-            List<Move> opponentMoves = MoveUtilities.getLegalMoves(tempBoard, opponentTeam);
+            Team opponentTeam = Team.getOpponent(movingTeam);
+            List<Move> opponentMoves = MoveUtilities.getLegalMoves(board, opponentTeam);
             
             for (Move opponentMove : opponentMoves) {
                 if (opponentMove.hasKilledPiece() && 
@@ -322,6 +297,8 @@ public class BoardPanel extends JPanel {
             // If there's an error simulating the move, assume it's unsafe
             System.err.println("Error checking move safety: " + e.getMessage());
             return false;
+        } finally {
+            board.unmakeMove();
         }
     }
 }
@@ -640,6 +640,20 @@ public void setOpponentName(String opponentName) {
         updateTimerHighlight();
     }
     
+    /**
+     * Check if the game clock is running (multiplayer mode only)
+     */
+    public boolean isClockRunning() {
+        return timersInitialized && !gameTimersPaused;
+    }
+
+    /**
+     * Get the seconds left on a team's clock
+     */
+    public int getTimeRemaining(Team team) {
+        return team == Team.BLACK ? blackTimeRemaining : whiteTimeRemaining;
+    }
+
     /**
      * Switch timer turn (pause current, start other)
      */
@@ -20,7 +20,8 @@ import java.util.ArrayList;
 import javax.swing.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import chess_game.ChessAI;
+import chess_game.Engine.EngineService;
+import chess_game.Engine.TimeManager;
 import chess_game.Move.Move;
 import chess_game.Utilities.GameLogic;
 import javax.swing.SwingWorker;
@@ -1311,6 +1312,7 @@ if (finalOpponentName != null && !finalOpponentName.isEmpty() && !finalOpponentN
     public void createAIGamePanel(Team playerTeam, Board loadedBoard) {
         this.gameFrame.getContentPane().removeAll();
         this.chessBoard = (loadedBoard != null) ? loadedBoard : new Board();
+        EngineService.getInstance().newGame();
         this.boardPanel = new BoardPanel(this.chessBoard, null, playerTeam); // Use new constructor with player team
         this.boardPanel.setTable(this); // Set table reference for AI mode
         this.bottomGameMenu = new InGameBottomMenu(playerTeam, true);
@@ -1406,8 +1408,8 @@ if (finalOpponentName != null && !finalOpponentName.isEmpty() && !finalOpponentN
                     SwingWorker<Move, Void> aiWorker = new SwingWorker<Move, Void>() {
                         @Override
                         protected Move doInBackground() throws Exception {
-                            ChessAI ai = new ChessAI(3);
-                            return ai.getBestMove(chessBoard, aiTeam);
+                            // Fixed movetime: the AI game has no clock
+                            return EngineService.getInstance().getBestMove(chessBoard, aiTeam, TimeManager.DEFAULT_MOVE_TIME_MS);
                         }
                         
                         @Override
@@ -1621,20 +1623,24 @@ if (finalOpponentName != null && !finalOpponentName.isEmpty() && !finalOpponentN
         bottomGameMenu.getHintBTN().setEnabled(false);
         
         // Calculate hint in background thread
-        SwingWorker<Move, Void> hintWorker = new SwingWorker<Move, Void>() {
+        SwingWorker<EngineService.SearchResult, Void> hintWorker = new SwingWorker<EngineService.SearchResult, Void>() {
             @Override
-            protected Move doInBackground() throws Exception {
-                ChessAI hintAI = new ChessAI(3); // Use same depth as game AI
-                return hintAI.getBestMove(chessBoard, currentTeam);
+            protected EngineService.SearchResult doInBackground() throws Exception {
+                // Same engine as the game AI, so the hint search and the AI reply share one warm table
+                // The hint thinks on the player's own clock when one is running
+                long moveTime = bottomGameMenu.isClockRunning()
+                    ? TimeManager.fromClock(bottomGameMenu.getTimeRemaining(currentTeam))
+                    : TimeManager.DEFAULT_MOVE_TIME_MS;
+                return EngineService.getInstance().analyze(chessBoard, currentTeam, moveTime);
             }
             
             @Override
             protected void done() {
                 try {
-                    Move bestMove = get();
+                    EngineService.SearchResult hint = get();
                     
-                    if (bestMove != null) {
-                        displayHint(bestMove);
+                    if (hint.getMove() != null) {
+                        displayHint(hint.getMove(), hint.getPrincipalVariation());
                         bottomGameMenu.useHint();
                     } else {
                         JOptionPane.showMessageDialog(gameFrame, 
@@ -1662,7 +1668,7 @@ if (finalOpponentName != null && !finalOpponentName.isEmpty() && !finalOpponentN
     /**
      * Display the hint to the user with move notation and strategic explanation
      */
-    private void displayHint(Move bestMove) {
+    private void displayHint(Move bestMove, String line) {
         String fromSquare = getSquareNotation(bestMove.getCurrentTile().getCoordinate());
         String toSquare = getSquareNotation(bestMove.getDestinationTile().getCoordinate());
         String pieceName = bestMove.getMovedPiece().getClass().getSimpleName();
@@ -1676,6 +1682,11 @@ if (finalOpponentName != null && !finalOpponentName.isEmpty() && !finalOpponentN
         String explanation = getMoveExplanation(bestMove);
         hintMessage.append("Strategy: ").append(explanation).append("\n\n");
         
+        // The rest of the line the engine expects, when it saw further than one move
+        if (line.indexOf(' ') > 0) {
+            hintMessage.append("Expected line: ").append(line).append("\n\n");
+        }
+        
         hintMessage.append("Tutor assistance is unlimited - use it anytime!");
         
         // Highlight the suggested move on the board